@@ -0,0 +1,100 @@
+package com.cms.benchmark;
+
+import com.cms.dto.ReportRowDTO;
+import com.cms.model.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * In-memory entity graphs for the benchmarks, so they run without a database.
+ */
+public final class Fixtures {
+
+    public static final String TEMPLATE_CONFIG = "{"
+            + "\"payee\": {\"x\": 100, \"y\": 720, \"fontSize\": 10},"
+            + "\"date\": {\"x\": 450, \"y\": 780, \"fontSize\": 12, \"charSpacing\": 10},"
+            + "\"amountNumeric\": {\"x\": 450, \"y\": 680, \"fontSize\": 12, \"isBold\": true},"
+            + "\"amountWords\": {\"x\": 140, \"y\": 690, \"fontSize\": 10},"
+            + "\"bankName\": {\"x\": 100, \"y\": 750, \"fontSize\": 10},"
+            + "\"companyName\": {\"x\": 300, \"y\": 640, \"fontSize\": 11, \"isBold\": true},"
+            + "\"acPayee\": {\"x\": 50, \"y\": 800, \"fontSize\": 8, \"isBold\": true, \"rotation\": 45},"
+            + "\"signatureLabel\": {\"x\": 420, \"y\": 600, \"fontSize\": 8}"
+            + "}";
+
+    private Fixtures() {
+    }
+
+    public static ChequeTemplate template() {
+        ChequeTemplate template = new ChequeTemplate();
+        template.setId(1L);
+        template.setName("Benchmark");
+        template.setCanvasConfig(TEMPLATE_CONFIG);
+        template.setLayoutVersion(1L);
+        return template;
+    }
+
+    public static ChequeBook chequeBook() {
+        Company company = Company.builder().id(1L).name("Acme Industries Ltd").code("ACME").currency("BDT").build();
+        Bank bank = Bank.builder().id(1L).name("City Bank").code("CITY").build();
+        Branch branch = Branch.builder().id(1L).bank(bank).name("Gulshan").build();
+        BankAccount account = BankAccount.builder().id(1L).company(company).branch(branch)
+                .accountNumber("1234567890").currency("BDT").build();
+        return ChequeBook.builder().id(1L).account(account).startNumber(100000).endNumber(999999)
+                .currentNumber(100000).build();
+    }
+
+    /** {@code count} issued cheques with varied amounts, all in one book. */
+    public static List<Cheque> cheques(int count) {
+        ChequeBook book = chequeBook();
+        Vendor vendor = vendor();
+        List<Cheque> cheques = new ArrayList<>(count);
+        ChequeStatus[] statuses = ChequeStatus.values();
+        for (int i = 0; i < count; i++) {
+            cheques.add(Cheque.builder()
+                    .id((long) i + 1)
+                    .chequeBook(book)
+                    .chequeNumber(100000L + i)
+                    .status(statuses[i % statuses.length])
+                    .amount(BigDecimal.valueOf(1_000_00L + i * 7_919L, 2))
+                    .payeeName("Payee " + i)
+                    .vendor(i % 3 == 0 ? vendor : null)
+                    .chequeDate(LocalDate.of(2026, 1, 1).plusDays(i % 365))
+                    .build());
+        }
+        return cheques;
+    }
+
+    /** The same cheques as flat report rows. */
+    public static List<ReportRowDTO> reportRows(int count) {
+        List<ReportRowDTO> rows = new ArrayList<>(count);
+        for (Cheque c : cheques(count)) {
+            rows.add(new ReportRowDTO(c.getId(), c.getChequeBook().getId(), c.getChequeNumber(), c.getPayeeName(),
+                    c.getVendor() != null ? c.getVendor().getName() : null, c.getAmount(), c.getChequeDate(),
+                    c.getStatus(), c.getWorkflowStatus(), c.getChequeBook().getAccount().getAccountNumber(),
+                    c.getBankName(), c.getChequeBook().getAccount().getCompany().getName()));
+        }
+        return rows;
+    }
+
+    public static Vendor vendor() {
+        return Vendor.builder()
+                .id(1L)
+                .company(chequeBook().getAccount().getCompany())
+                .name("Global Supplies")
+                .code("GS-001")
+                .address("House 12, Road 4, Dhaka")
+                .contactPerson("R. Karim")
+                .email("accounts@globalsupplies.example")
+                .phone("+880100000000")
+                .bankName("City Bank")
+                .bankBranch("Gulshan")
+                .accountNumber("9876543210")
+                .ifscCode("CITY0001")
+                .paymentPreference(PaymentPreference.CHEQUE)
+                .paymentTermsDays(30)
+                .build();
+    }
+}
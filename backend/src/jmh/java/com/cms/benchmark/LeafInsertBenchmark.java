@@ -0,0 +1,142 @@
+package com.cms.benchmark;
+
+import com.cms.BackendApplication;
+import com.cms.model.Bank;
+import com.cms.model.BankAccount;
+import com.cms.model.Branch;
+import com.cms.model.Cheque;
+import com.cms.model.ChequeBook;
+import com.cms.model.ChequeStatus;
+import com.cms.model.Company;
+import com.cms.model.LeafMode;
+import com.cms.repository.BankAccountRepository;
+import com.cms.repository.BankRepository;
+import com.cms.repository.BranchRepository;
+import com.cms.repository.ChequeBookRepository;
+import com.cms.repository.ChequeLeafBulkWriter;
+import com.cms.repository.ChequeRepository;
+import com.cms.repository.CompanyRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generating the leaves of a materialized cheque book: the former per-row
+ * {@code saveAll} against the single INSERT ... SELECT of {@link ChequeLeafBulkWriter}.
+ * <p>
+ * Needs a PostgreSQL database it may write to; the schema is created by the
+ * application on startup. Every invocation inserts into a fresh book, which is
+ * deleted again afterwards so the table does not grow between iterations.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="LeafInsertBenchmark -p jdbcUrl=jdbc:postgresql://localhost:5432/cheque_bench"
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class LeafInsertBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int leaves;
+
+    @Param("jdbc:postgresql://localhost:5432/cheque_bench")
+    public String jdbcUrl;
+
+    @Param("postgres")
+    public String username;
+
+    @Param("postgres")
+    public String password;
+
+    private ConfigurableApplicationContext context;
+    private ChequeRepository chequeRepository;
+    private ChequeBookRepository chequeBookRepository;
+    private ChequeLeafBulkWriter chequeLeafBulkWriter;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private BankAccount account;
+    private ChequeBook book;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=" + jdbcUrl,
+                        "spring.datasource.username=" + username,
+                        "spring.datasource.password=" + password,
+                        "spring.jpa.show-sql=false")
+                .run();
+        chequeRepository = context.getBean(ChequeRepository.class);
+        chequeBookRepository = context.getBean(ChequeBookRepository.class);
+        chequeLeafBulkWriter = context.getBean(ChequeLeafBulkWriter.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        // Names and codes are unique, so each run brings its own account
+        String suffix = Long.toString(System.currentTimeMillis(), 36).toUpperCase();
+        Company company = context.getBean(CompanyRepository.class).save(
+                Company.builder().name("Benchmark " + suffix).code("B" + suffix).currency("BDT").build());
+        Bank bank = context.getBean(BankRepository.class).save(
+                Bank.builder().name("Benchmark Bank " + suffix).code("B" + suffix).build());
+        Branch branch = context.getBean(BranchRepository.class).save(
+                Branch.builder().bank(bank).name("Main").build());
+        account = context.getBean(BankAccountRepository.class).save(BankAccount.builder().company(company)
+                .branch(branch).accountNumber("BENCH-" + suffix).currency("BDT").build());
+    }
+
+    @Setup(Level.Invocation)
+    public void createBook() {
+        book = chequeBookRepository.save(ChequeBook.builder()
+                .account(account)
+                .startNumber(100000)
+                .endNumber(100000L + leaves - 1)
+                .currentNumber(100000)
+                .issuedDate(LocalDate.now())
+                .leafMode(LeafMode.MATERIALIZED)
+                .build());
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteBook() {
+        jdbcTemplate.update("DELETE FROM cheques WHERE cheque_book_id = ?", book.getId());
+        chequeBookRepository.deleteById(book.getId());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public int saveAll() {
+        return transactionTemplate.execute(status -> {
+            List<Cheque> cheques = new ArrayList<>(leaves);
+            for (long num = book.getStartNumber(); num <= book.getEndNumber(); num++) {
+                Cheque cheque = new Cheque();
+                cheque.setChequeBook(book);
+                cheque.setChequeNumber(num);
+                cheque.setStatus(ChequeStatus.UNUSED);
+                cheques.add(cheque);
+            }
+            return chequeRepository.saveAll(cheques).size();
+        });
+    }
+
+    @Benchmark
+    public int bulkInsert() {
+        return transactionTemplate.execute(status -> chequeLeafBulkWriter.insertUnusedLeaves(book.getId(),
+                book.getStartNumber(), book.getEndNumber()));
+    }
+}
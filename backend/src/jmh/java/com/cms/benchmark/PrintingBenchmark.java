@@ -0,0 +1,120 @@
+package com.cms.benchmark;
+
+import com.cms.model.Cheque;
+import com.cms.model.ChequeTemplate;
+import com.cms.service.AmountInWords;
+import com.cms.service.ChequeBackgroundCache;
+import com.cms.service.ChequeLayout;
+import com.cms.service.ChequeLayoutCache;
+import com.cms.service.ChequePrintingService;
+import com.lowagie.text.Document;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.pdf.PdfContentByte;
+import com.lowagie.text.pdf.PdfWriter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.beans.DirectFieldAccessor;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cheque rendering hot paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrintingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Batch {
+
+        @Param({ "100", "1000", "10000" })
+        public int batchSize;
+
+        // 0 = one per core
+        @Param({ "1", "2", "4", "0" })
+        public int renderThreads;
+
+        ChequePrintingService service;
+        ChequeTemplate template;
+        List<Cheque> cheques;
+
+        @Setup
+        public void setUp() {
+            service = new ChequePrintingService();
+            DirectFieldAccessor fields = new DirectFieldAccessor(service);
+            fields.setPropertyValue("chequeLayoutCache", new ChequeLayoutCache());
+            fields.setPropertyValue("chequeBackgroundCache", new ChequeBackgroundCache());
+            // The default chunk size, lowered so every batch splits into at least 8 chunks
+            // and renderThreads changes the parallelism for all batch sizes
+            fields.setPropertyValue("chunkSize", Math.min(250, batchSize / 8));
+            fields.setPropertyValue("renderThreads", renderThreads);
+            service.startRenderPool();
+
+            template = Fixtures.template();
+            cheques = Fixtures.cheques(batchSize);
+        }
+
+        @TearDown
+        public void tearDown() {
+            service.stopRenderPool();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Canvas {
+        ChequeLayout layout;
+        PdfContentByte cb;
+
+        // The document is never closed; only the page's content stream is exercised
+        @Setup
+        public void setUp() {
+            layout = new ChequeLayoutCache().get(Fixtures.template());
+            Document document = new Document(PageSize.A4);
+            PdfWriter writer = PdfWriter.getInstance(document, OutputStream.nullOutputStream());
+            document.open();
+            cb = writer.getDirectContent();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Amounts {
+        final StringBuilder words = new StringBuilder(128);
+        final AmountInWords.CurrencyWords currency = AmountInWords.currency("BDT");
+        BigDecimal[] amounts;
+        int next;
+
+        @Setup
+        public void setUp() {
+            amounts = new BigDecimal[1024];
+            for (int i = 0; i < amounts.length; i++) {
+                amounts[i] = BigDecimal.valueOf((long) i * 98_765_431L % 10_000_000_000L, 2);
+            }
+        }
+    }
+
+    @Benchmark
+    public void renderPdf(Batch batch) {
+        batch.service.writeChequePdf(batch.cheques, batch.template, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void drawField(Canvas canvas) {
+        canvas.layout.payee.draw(canvas.cb, "Global Supplies Ltd", 0, 0);
+        canvas.layout.acPayee.draw(canvas.cb, "A/C PAYEE ONLY", 0, 0);
+        canvas.cb.reset(); // Keep the page buffer from growing across invocations
+    }
+
+    @Benchmark
+    public void amountInWords(Amounts state, Blackhole blackhole) {
+        BigDecimal amount = state.amounts[state.next++ & (state.amounts.length - 1)];
+        state.words.setLength(0);
+        AmountInWords.append(amount, state.currency, AmountInWords.Grouping.INDIAN, state.words);
+        blackhole.consume(state.words);
+    }
+}
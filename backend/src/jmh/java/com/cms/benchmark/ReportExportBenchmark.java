@@ -0,0 +1,48 @@
+package com.cms.benchmark;
+
+import com.cms.dto.ReportRowDTO;
+import com.cms.service.ReportService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The three report exports over in-memory report rows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ReportExportBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    public int rows;
+
+    private ReportService reportService;
+    private List<ReportRowDTO> data;
+
+    @Setup
+    public void setUp() {
+        reportService = new ReportService(null, null); // Exports of given rows touch neither repository nor cache
+        data = Fixtures.reportRows(rows);
+    }
+
+    @Benchmark
+    public void exportPdf() {
+        reportService.exportToPdf(data.stream(), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void exportExcel() {
+        reportService.exportToExcel(data.stream(), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void exportCsv() {
+        reportService.exportToCsv(data.stream(), OutputStream.nullOutputStream(), false);
+    }
+}
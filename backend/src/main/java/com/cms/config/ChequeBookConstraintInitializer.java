@@ -0,0 +1,61 @@
+package com.cms.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Adds the database-side guard against overlapping cheque books, which
+ * hibernate.ddl-auto cannot express. The GiST exclusion constraint makes
+ * PostgreSQL reject a second book on the same account whose int8range overlaps
+ * an existing one, even when both are inserted concurrently. The account id is
+ * wrapped in a one-value range so the constraint needs only the built-in range
+ * operator class (no btree_gist extension).
+ * <p>
+ * Startup fails if the constraint cannot be added: the in-memory
+ * {@link com.cms.service.ChequeBookRangeIndex} alone does not cover concurrent
+ * transactions or other instances.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ChequeBookConstraintInitializer implements CommandLineRunner {
+
+    private static final String CONSTRAINT_NAME = "cheque_books_no_overlap";
+
+    private static final String OVERLAPPING_BOOKS = "SELECT a.id || ' and ' || b.id FROM cheque_books a "
+            + "JOIN cheque_books b ON b.account_id = a.account_id AND b.id > a.id "
+            + "AND b.start_number <= a.end_number AND a.start_number <= b.end_number "
+            + "ORDER BY a.id, b.id LIMIT 20";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_constraint WHERE conname = ?", Integer.class, CONSTRAINT_NAME);
+        if (existing != null && existing > 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.execute("ALTER TABLE cheque_books ADD CONSTRAINT " + CONSTRAINT_NAME
+                    + " EXCLUDE USING gist ("
+                    + "int8range(account_id, account_id, '[]') WITH =, "
+                    + "int8range(start_number, end_number, '[]') WITH &&)");
+            System.out.println("Cheque book overlap constraint created.");
+        } catch (Exception e) {
+            List<String> overlaps = jdbcTemplate.queryForList(OVERLAPPING_BOOKS, String.class);
+            if (!overlaps.isEmpty()) {
+                throw new RuntimeException("Could not create cheque book overlap constraint: these cheque books "
+                        + "overlap on the same account and must be corrected first: " + String.join(", ", overlaps),
+                        e);
+            }
+            throw new RuntimeException("Could not create cheque book overlap constraint: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.cms.config;
+
+import com.cms.repository.ChequeDailyRollupRepository;
+import com.cms.service.ChequeRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Installs the triggers that keep {@code cheque_daily_rollups} current. They are
+ * statement-level and read the statement's transition tables, so a bulk update of
+ * thousands of leaves costs one upsert per affected group, in the same transaction
+ * as the update; changes that leave every group as it was (print counts, remarks)
+ * write nothing. Runs before the seed data, and rebuilds the rollup whenever the
+ * triggers had to be created. Dashboards read only the rollup, so startup fails if
+ * the triggers cannot be installed.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ChequeRollupInitializer implements CommandLineRunner {
+
+    private static final String GROUP_INDEX = "CREATE UNIQUE INDEX IF NOT EXISTS cheque_daily_rollups_group "
+            + "ON cheque_daily_rollups (" + ChequeDailyRollupRepository.GROUP_KEY + ")";
+
+    private static final List<String> TRIGGERS = List.of(
+            "cheques_rollup_insert", "cheques_rollup_update", "cheques_rollup_delete",
+            "incoming_cheques_rollup_insert", "incoming_cheques_rollup_update", "incoming_cheques_rollup_delete");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChequeRollupService chequeRollupService;
+
+    @Override
+    public void run(String... args) {
+        try {
+            jdbcTemplate.execute(GROUP_INDEX);
+            // Replaced on every start so definition changes take effect
+            jdbcTemplate.execute(rollupFunction("cheques", "cheque_book_id", "NULL::bigint", "OUTGOING",
+                    "a.company_id", "b.account_id",
+                    "JOIN cheque_books b ON b.id = d.ref_id JOIN bank_accounts a ON a.id = b.account_id"));
+            jdbcTemplate.execute(rollupFunction("incoming_cheques", "customer_id", "deposit_account_id", "INCOMING",
+                    "cu.company_id", "d.account_id",
+                    "JOIN customers cu ON cu.id = d.ref_id"));
+
+            Integer existing = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM pg_trigger WHERE tgname IN ('" + String.join("', '", TRIGGERS) + "')",
+                    Integer.class);
+            if (existing != null && existing == TRIGGERS.size()) {
+                return;
+            }
+            for (String table : List.of("cheques", "incoming_cheques")) {
+                createTrigger(table, "insert", "REFERENCING NEW TABLE AS new_rows");
+                createTrigger(table, "update", "REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows");
+                createTrigger(table, "delete", "REFERENCING OLD TABLE AS old_rows");
+            }
+            System.out.println("Cheque rollup triggers created.");
+            chequeRollupService.rebuild();
+        } catch (Exception e) {
+            throw new RuntimeException("Could not install cheque rollup triggers: " + e.getMessage(), e);
+        }
+    }
+
+    private void createTrigger(String table, String event, String transitionTables) {
+        String name = table + "_rollup_" + event;
+        jdbcTemplate.execute("DROP TRIGGER IF EXISTS " + name + " ON " + table);
+        jdbcTemplate.execute("CREATE TRIGGER " + name + " AFTER " + event.toUpperCase() + " ON " + table + " "
+                + transitionTables + " FOR EACH STATEMENT EXECUTE FUNCTION " + table + "_rollup()");
+    }
+
+    /**
+     * One function per cheque table. Rows entering a group count +1, rows leaving it
+     * -1; the deltas are summed per group and applied in group order, so concurrent
+     * statements lock rollup rows in the same order. The companies' rebuild locks
+     * are taken shared first, also in order, so a rebuild of a company never misses
+     * or double counts a delta.
+     */
+    private static String rollupFunction(String table, String refColumn, String accountColumn, String direction,
+            String companyGroup, String accountGroup, String joins) {
+        String groupColumns = companyGroup + ", " + accountGroup;
+        String columns = "SELECT " + refColumn + " AS ref_id, " + accountColumn + " AS account_id, "
+                + "status, cheque_date, ";
+        String added = columns + "1 AS n, amount FROM new_rows";
+        String removed = columns + "-1 AS n, -amount AS amount FROM old_rows";
+        return "CREATE OR REPLACE FUNCTION " + table + "_rollup() RETURNS trigger LANGUAGE plpgsql AS $fn$\n"
+                + "BEGIN\n"
+                + "    IF TG_OP = 'INSERT' THEN\n"
+                + "        " + lockCompanies(added, companyGroup, joins) + ";\n"
+                + "        " + applyDeltas(added, direction, groupColumns, joins) + ";\n"
+                + "    ELSIF TG_OP = 'DELETE' THEN\n"
+                + "        " + lockCompanies(removed, companyGroup, joins) + ";\n"
+                + "        " + applyDeltas(removed, direction, groupColumns, joins) + ";\n"
+                + "    ELSE\n"
+                + "        " + lockCompanies(added + " UNION ALL " + removed, companyGroup, joins) + ";\n"
+                + "        " + applyDeltas(added + " UNION ALL " + removed, direction, groupColumns, joins) + ";\n"
+                + "    END IF;\n"
+                + "    RETURN NULL;\n"
+                + "END\n"
+                + "$fn$";
+    }
+
+    private static String lockCompanies(String deltas, String companyGroup, String joins) {
+        return "PERFORM pg_advisory_xact_lock_shared(" + ChequeDailyRollupRepository.COMPANY_LOCK + ", "
+                + "CAST(l.company_id AS integer)) FROM (SELECT DISTINCT " + companyGroup + " AS company_id "
+                + "FROM (" + deltas + ") d " + joins + " ORDER BY 1) l";
+    }
+
+    private static String applyDeltas(String deltas, String direction, String groupColumns, String joins) {
+        return "INSERT INTO cheque_daily_rollups AS r "
+                + "(company_id, bank_account_id, direction, status, cheque_date, cheque_count, amount_sum) "
+                + "SELECT " + groupColumns + ", '" + direction + "', d.status, d.cheque_date, SUM(d.n), "
+                + "COALESCE(SUM(d.amount), 0) FROM (" + deltas + ") d " + joins + " "
+                + "GROUP BY 1, 2, 4, 5 HAVING SUM(d.n) <> 0 OR COALESCE(SUM(d.amount), 0) <> 0 "
+                + "ORDER BY 1, 2, 4, 5 "
+                + "ON CONFLICT (" + ChequeDailyRollupRepository.GROUP_KEY + ") DO UPDATE SET "
+                + "cheque_count = r.cheque_count + EXCLUDED.cheque_count, "
+                + "amount_sum = r.amount_sum + EXCLUDED.amount_sum";
+    }
+}
@@ -34,8 +34,12 @@ public class DataInitializer implements CommandLineRunner {
     @Autowired
     private com.cms.repository.BankAccountRepository bankAccountRepository;
     @Autowired
+    private com.cms.repository.ChequeBookRepository chequeBookRepository;
+    @Autowired
     private com.cms.service.ChequeBookService chequeBookService;
     @Autowired
+    private com.cms.service.ChequeBookCounterService chequeBookCounterService;
+    @Autowired
     private com.cms.repository.CustomerRepository customerRepository;
     @Autowired
     private com.cms.repository.VendorRepository vendorRepository;
@@ -117,7 +121,7 @@ public class DataInitializer implements CommandLineRunner {
             cbDto.setStartNumber(100001);
             cbDto.setEndNumber(100050);
             cbDto.setIssuedDate(java.time.LocalDate.now());
-            chequeBookService.createChequeBook(cbDto); // This auto-generates 50 unused cheques
+            chequeBookService.createChequeBook(cbDto); // 50 virtual leaves, no cheque rows yet
 
             System.out.println("Master Data & Cheque Book created.");
         }
@@ -176,11 +180,13 @@ public class DataInitializer implements CommandLineRunner {
         // 7.1 Create Outgoing Cheques (PDC / Issued) ONLY if none exist
         if (chequeRepository.countByStatus(com.cms.model.ChequeStatus.ISSUED) == 0
                 && chequeRepository.countByStatus(com.cms.model.ChequeStatus.DUE) == 0) {
-            // Find all cheques
-            java.util.List<com.cms.model.Cheque> allCheques = chequeRepository.findAll();
-            // Filter stream for UNUSED
-            java.util.List<com.cms.model.Cheque> avail = allCheques.stream()
-                    .filter(c -> c.getStatus() == com.cms.model.ChequeStatus.UNUSED).limit(5).toList();
+            // Claim three consecutive leaves from the first book that has them
+            java.util.List<com.cms.model.Cheque> avail = new java.util.ArrayList<>();
+            for (com.cms.model.ChequeBook book : chequeBookRepository.findAll()) {
+                avail = chequeBookService.claimUnusedLeaves(book.getId(), 3);
+                if (avail.size() >= 3)
+                    break;
+            }
 
             if (avail.size() >= 3) {
                 com.cms.model.Vendor vendor = vendorRepository.findAll().get(0);
@@ -192,6 +198,8 @@ public class DataInitializer implements CommandLineRunner {
                 c1.setAmount(new java.math.BigDecimal("12500.00"));
                 c1.setChequeDate(java.time.LocalDate.now().plusDays(10));
                 chequeRepository.save(c1);
+                chequeBookCounterService.recordTransition(c1.getChequeBook().getId(),
+                        com.cms.model.ChequeStatus.UNUSED, com.cms.model.ChequeStatus.ISSUED);
 
                 // Cheque 2: Issued to specific Payee (Due Today)
                 com.cms.model.Cheque c2 = avail.get(1);
@@ -200,6 +208,8 @@ public class DataInitializer implements CommandLineRunner {
                 c2.setAmount(new java.math.BigDecimal("5000.00"));
                 c2.setChequeDate(java.time.LocalDate.now());
                 chequeRepository.save(c2);
+                chequeBookCounterService.recordTransition(c2.getChequeBook().getId(),
+                        com.cms.model.ChequeStatus.UNUSED, com.cms.model.ChequeStatus.DUE);
 
                 // Cheque 3: Printed (Already processed)
                 com.cms.model.Cheque c3 = avail.get(2);
@@ -208,6 +218,8 @@ public class DataInitializer implements CommandLineRunner {
                 c3.setAmount(new java.math.BigDecimal("780.00"));
                 c3.setChequeDate(java.time.LocalDate.now().minusDays(2));
                 chequeRepository.save(c3);
+                chequeBookCounterService.recordTransition(c3.getChequeBook().getId(),
+                        com.cms.model.ChequeStatus.UNUSED, com.cms.model.ChequeStatus.PRINTED);
 
                 System.out.println("Outgoing Cheques (Issued/Due/Printed) created from available pool.");
             }
@@ -1,7 +1,10 @@
 package com.cms.controller;
 
+import com.cms.dto.BulkStatusResultDTO;
+import com.cms.dto.BulkStatusUpdateDTO;
 import com.cms.dto.ChequeBookDTO;
 import com.cms.dto.ChequeDTO;
+import com.cms.dto.ChequeLeafPageDTO;
 import com.cms.model.ChequeStatus;
 import com.cms.service.ChequeBookService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,9 +33,20 @@ public class ChequeBookController {
         return ResponseEntity.ok(chequeBookService.getChequeBookById(id));
     }
 
+    // Rebuilds the book's status counters from the cheques table
+    @PostMapping("/{id}/reconcile")
+    public ResponseEntity<ChequeBookDTO> reconcileCounters(@PathVariable Long id) {
+        return ResponseEntity.ok(chequeBookService.reconcileCounters(id));
+    }
+
     @GetMapping("/{id}/cheques")
-    public ResponseEntity<List<ChequeDTO>> getChequesByBook(@PathVariable Long id) {
-        return ResponseEntity.ok(chequeBookService.getChequesByBook(id));
+    public ResponseEntity<ChequeLeafPageDTO> getChequesByBook(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int limit,
+            @RequestParam(required = false) ChequeStatus status,
+            @RequestParam(defaultValue = "false") boolean countOnly) {
+        return ResponseEntity.ok(chequeBookService.getChequesByBook(id, after, limit, status, countOnly));
     }
 
     @PostMapping
@@ -40,6 +54,17 @@ public class ChequeBookController {
         return new ResponseEntity<>(chequeBookService.createChequeBook(dto), HttpStatus.CREATED);
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<ChequeBookDTO>> createChequeBooks(@RequestBody List<ChequeBookDTO> dtos) {
+        return new ResponseEntity<>(chequeBookService.createChequeBooks(dtos), HttpStatus.CREATED);
+    }
+
+    // Bulk status change for a leaf range or a list of cheque IDs; reports per-item outcome
+    @PatchMapping("/cheques/status")
+    public ResponseEntity<BulkStatusResultDTO> updateChequeStatuses(@RequestBody BulkStatusUpdateDTO request) {
+        return ResponseEntity.ok(chequeBookService.updateChequeStatuses(request));
+    }
+
     @PatchMapping("/cheques/{chequeId}/status")
     public ResponseEntity<ChequeDTO> updateChequeStatus(
             @PathVariable Long chequeId,
@@ -52,6 +77,27 @@ public class ChequeBookController {
         return ResponseEntity.ok(chequeBookService.updateChequeStatus(chequeId, status, remarks));
     }
 
+    // Status change for a leaf addressed by number, e.g. voiding a virtual leaf that has no row yet
+    @PatchMapping("/{id}/leaves/{chequeNumber}/status")
+    public ResponseEntity<ChequeDTO> updateLeafStatus(
+            @PathVariable Long id,
+            @PathVariable Long chequeNumber,
+            @RequestBody Map<String, String> payload) {
+
+        ChequeStatus status = ChequeStatus.valueOf(payload.get("status"));
+
+        return ResponseEntity.ok(chequeBookService.updateLeafStatus(id, chequeNumber, status, payload.get("remarks")));
+    }
+
+    // Reserves the next `count` consecutive leaves of a book for the calling maker until
+    // they are written or the claim lapses (app.leaves.claim-minutes)
+    @PostMapping("/{id}/leaves/claim")
+    public ResponseEntity<List<ChequeDTO>> claimLeaves(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "1") int count) {
+        return ResponseEntity.ok(chequeBookService.claimLeaves(id, count));
+    }
+
     @PostMapping("/outgoing")
     public ResponseEntity<ChequeDTO> createOutgoingCheque(@RequestBody ChequeDTO dto) {
         return ResponseEntity.ok(chequeBookService.createOutgoingCheque(dto));
@@ -1,11 +1,18 @@
 package com.cms.controller;
 
+import com.cms.dto.PrintJobDTO;
+import com.cms.model.Cheque;
+import com.cms.model.ChequeTemplate;
 import com.cms.service.ChequePrintingService;
+import com.cms.service.PrintJobService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.util.List;
@@ -18,12 +25,16 @@ public class ChequePrintingController {
     @Autowired
     private ChequePrintingService chequePrintingService;
 
+    @Autowired
+    private PrintJobService printJobService;
+
     @GetMapping("/cheque/{chequeId}/template/{templateId}")
     public ResponseEntity<byte[]> printCheque(
             @PathVariable Long chequeId,
-            @PathVariable Long templateId) {
+            @PathVariable Long templateId,
+            @RequestParam(defaultValue = "false") boolean background) {
         try {
-            byte[] pdfBytes = chequePrintingService.generateChequePdf(chequeId, templateId);
+            byte[] pdfBytes = chequePrintingService.generateChequePdf(chequeId, templateId, background);
 
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=cheque_" + chequeId + ".pdf")
@@ -35,18 +46,50 @@ public class ChequePrintingController {
     }
 
     @PostMapping("/batch/template/{templateId}")
-    public ResponseEntity<byte[]> printBatchCheques(
+    public ResponseEntity<StreamingResponseBody> printBatchCheques(
             @RequestBody List<Long> chequeIds,
-            @PathVariable Long templateId) {
-        try {
-            byte[] pdfBytes = chequePrintingService.generateBatchChequePdf(chequeIds, templateId);
+            @PathVariable Long templateId,
+            @RequestParam(defaultValue = "false") boolean background) {
+        // Load up front so missing cheques/template still fail with a normal error response
+        List<Cheque> cheques = chequePrintingService.loadChequesForPrinting(chequeIds);
+        ChequeTemplate template = chequePrintingService.getTemplate(templateId);
 
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=batch_cheques.pdf")
-                    .contentType(MediaType.APPLICATION_PDF)
-                    .body(pdfBytes);
-        } catch (IOException e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        // Pages go to the client as they are rendered; the print is only recorded once
+        // the whole document was written
+        StreamingResponseBody body = out -> {
+            chequePrintingService.writeChequePdf(cheques, template, background, out, rendered -> {
+            });
+            chequePrintingService.recordPrints(cheques);
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=batch_cheques.pdf")
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(body);
+    }
+
+    // Queues the batch and returns at once; poll the job, then download its file
+    @PostMapping("/jobs/template/{templateId}")
+    public ResponseEntity<PrintJobDTO> submitPrintJob(
+            @RequestBody List<Long> chequeIds,
+            @PathVariable Long templateId,
+            @RequestParam(defaultValue = "false") boolean background) {
+        return ResponseEntity.accepted().body(printJobService.submit(chequeIds, templateId, background));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<PrintJobDTO> getPrintJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(printJobService.getJob(jobId));
+    }
+
+    // Returning a Resource lets Spring answer Range requests with 206 partial content,
+    // so an interrupted download can be resumed
+    @GetMapping("/jobs/{jobId}/file")
+    public ResponseEntity<Resource> downloadPrintJob(@PathVariable Long jobId) {
+        Resource file = new FileSystemResource(printJobService.getJobFile(jobId));
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=print_job_" + jobId + ".pdf")
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(file);
     }
 }
@@ -3,9 +3,12 @@ package com.cms.controller;
 import com.cms.model.ChequeTemplate;
 import com.cms.service.ChequeTemplateService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -36,6 +39,12 @@ public class ChequeTemplateController {
         return ResponseEntity.ok(chequeTemplateService.updateTemplate(id, template));
     }
 
+    @PostMapping(value = "/{id}/background", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ChequeTemplate> uploadBackground(@PathVariable Long id,
+            @RequestPart("file") MultipartFile file) throws IOException {
+        return ResponseEntity.ok(chequeTemplateService.uploadBackground(id, file));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteTemplate(@PathVariable Long id) {
         chequeTemplateService.deleteTemplate(id);
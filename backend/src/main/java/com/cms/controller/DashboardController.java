@@ -1,6 +1,7 @@
 package com.cms.controller;
 
 import com.cms.dto.DashboardStatsDTO;
+import com.cms.service.ChequeRollupService;
 import com.cms.service.DashboardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -14,8 +15,18 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private ChequeRollupService chequeRollupService;
+
     @GetMapping("/stats")
-    public ResponseEntity<DashboardStatsDTO> getStats() {
-        return ResponseEntity.ok(dashboardService.getStats());
+    public ResponseEntity<DashboardStatsDTO> getStats(@RequestParam(required = false) Long companyId) {
+        return ResponseEntity.ok(dashboardService.getStats(companyId));
+    }
+
+    // Admins only: rebuilds the summaries' rollup from the cheques, one company or all of them
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<String> rebuildRollup(@RequestParam(required = false) Long companyId) {
+        int groups = chequeRollupService.rebuildAsAdmin(companyId);
+        return ResponseEntity.ok("Cheque rollup rebuilt with " + groups + " group(s).");
     }
 }
@@ -1,8 +1,11 @@
 package com.cms.controller;
 
+import com.cms.dto.CashFlowForecastDTO;
+import com.cms.dto.IncomingPdcDTO;
+import com.cms.dto.OutgoingPdcDTO;
 import com.cms.dto.PdcSummaryDTO;
-import com.cms.model.Cheque;
-import com.cms.model.IncomingCheque;
+import com.cms.model.ForecastGranularity;
+import com.cms.service.CashFlowForecastService;
 import com.cms.service.PdcService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -18,9 +21,22 @@ public class PdcController {
     @Autowired
     private PdcService pdcService;
 
+    @Autowired
+    private CashFlowForecastService cashFlowForecastService;
+
     @GetMapping("/exposure")
-    public ResponseEntity<List<PdcSummaryDTO>> getPdcExposureReport() {
-        return ResponseEntity.ok(pdcService.getPdcExposureReport());
+    public ResponseEntity<List<PdcSummaryDTO>> getPdcExposureReport(
+            @RequestParam(required = false) Long companyId) {
+        return ResponseEntity.ok(pdcService.getPdcExposureReport(companyId));
+    }
+
+    // Maturity ladder and projected balance per bank account, from today for horizonDays days
+    @GetMapping("/forecast")
+    public ResponseEntity<CashFlowForecastDTO> getCashFlowForecast(
+            @RequestParam(required = false) Long companyId,
+            @RequestParam(defaultValue = "90") int horizonDays,
+            @RequestParam(defaultValue = "DAY") ForecastGranularity granularity) {
+        return ResponseEntity.ok(cashFlowForecastService.getForecast(companyId, horizonDays, granularity));
     }
 
     @PostMapping("/run-check")
@@ -30,12 +46,12 @@ public class PdcController {
     }
 
     @GetMapping("/outgoing-details")
-    public ResponseEntity<List<Cheque>> getOutgoingExposureDetails() {
+    public ResponseEntity<List<OutgoingPdcDTO>> getOutgoingExposureDetails() {
         return ResponseEntity.ok(pdcService.getActiveOutgoingCheques());
     }
 
     @GetMapping("/incoming-details")
-    public ResponseEntity<List<IncomingCheque>> getIncomingExposureDetails() {
+    public ResponseEntity<List<IncomingPdcDTO>> getIncomingExposureDetails() {
         return ResponseEntity.ok(pdcService.getActiveIncomingCheques());
     }
 }
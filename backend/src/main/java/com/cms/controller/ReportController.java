@@ -1,13 +1,21 @@
 package com.cms.controller;
 
+import com.cms.dto.ReportCacheStatsDTO;
 import com.cms.dto.ReportFilterDTO;
-import com.cms.model.Cheque;
+import com.cms.dto.ReportJobDTO;
+import com.cms.dto.ReportRowDTO;
+import com.cms.model.ReportFormat;
+import com.cms.service.CsvWriter;
+import com.cms.service.ReportJobService;
 import com.cms.service.ReportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -16,38 +24,96 @@ import java.util.List;
 @CrossOrigin(origins = "*")
 public class ReportController {
 
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv; charset=UTF-8");
+
+    private static final MediaType XLSX =
+            MediaType.parseMediaType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private ReportJobService reportJobService;
+
     @PostMapping("/data")
-    public ResponseEntity<List<Cheque>> getReportData(@RequestBody ReportFilterDTO filter) {
+    public ResponseEntity<List<ReportRowDTO>> getReportData(@RequestBody ReportFilterDTO filter) {
         return ResponseEntity.ok(reportService.generateReportData(filter));
     }
 
+    // Hit/miss counters of the report result cache
+    @GetMapping("/cache/stats")
+    public ResponseEntity<ReportCacheStatsDTO> getCacheStats() {
+        return ResponseEntity.ok(reportService.getCacheStats());
+    }
+
     @PostMapping("/export/pdf")
-    public ResponseEntity<byte[]> exportPdf(@RequestBody ReportFilterDTO filter) {
-        byte[] data = reportService.exportToPdf(reportService.generateReportData(filter));
+    public ResponseEntity<StreamingResponseBody> exportPdf(@RequestBody ReportFilterDTO filter) {
+        // Pages are sent as they are laid out, while later rows are still being read
+        StreamingResponseBody body = out -> reportService.exportToPdf(filter, out);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=report.pdf")
                 .contentType(MediaType.APPLICATION_PDF)
-                .body(data);
+                .body(body);
     }
 
     @PostMapping("/export/excel")
-    public ResponseEntity<byte[]> exportExcel(@RequestBody ReportFilterDTO filter) {
-        byte[] data = reportService.exportToExcel(reportService.generateReportData(filter));
+    public ResponseEntity<StreamingResponseBody> exportExcel(@RequestBody ReportFilterDTO filter) {
+        // Rows are read from the database and written to the client as the sheet is built
+        StreamingResponseBody body = out -> reportService.exportToExcel(filter, out);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=report.xlsx")
-                .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                .body(data);
+                .contentType(XLSX)
+                .body(body);
     }
 
     @PostMapping("/export/csv")
-    public ResponseEntity<byte[]> exportCsv(@RequestBody ReportFilterDTO filter) {
-        byte[] data = reportService.exportToCsv(reportService.generateReportData(filter));
+    public ResponseEntity<StreamingResponseBody> exportCsv(@RequestBody ReportFilterDTO filter,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = CsvWriter.acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> reportService.exportToCsv(filter, out, gzip);
+        return csvResponse("report.csv", gzip).body(body);
+    }
+
+    // Queues the export and returns at once; poll the job, then download its file
+    @PostMapping("/jobs/{format}")
+    public ResponseEntity<ReportJobDTO> submitReportJob(@PathVariable ReportFormat format,
+            @RequestBody ReportFilterDTO filter) {
+        return ResponseEntity.accepted().body(reportJobService.submit(filter, format));
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ReportJobDTO> getReportJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(reportJobService.getJob(jobId));
+    }
+
+    // Served as a Resource so Range requests resume interrupted downloads
+    @GetMapping("/jobs/{jobId}/file")
+    public ResponseEntity<Resource> downloadReportJob(@PathVariable Long jobId) {
+        ReportJobDTO job = reportJobService.getJob(jobId);
+        Resource file = new FileSystemResource(reportJobService.getJobFile(jobId));
         return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=report.csv")
-                .contentType(MediaType.TEXT_PLAIN)
-                .body(data);
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=report_" + jobId + "." + job.getFormat().getExtension())
+                .contentType(contentType(job.getFormat()))
+                .body(file);
+    }
+
+    private static MediaType contentType(ReportFormat format) {
+        switch (format) {
+            case PDF:
+                return MediaType.APPLICATION_PDF;
+            case EXCEL:
+                return XLSX;
+            default:
+                return CSV;
+        }
+    }
+
+    static ResponseEntity.BodyBuilder csvResponse(String filename, boolean gzip) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(CSV);
+        return gzip ? response.header(HttpHeaders.CONTENT_ENCODING, "gzip") : response;
     }
 }
@@ -0,0 +1,25 @@
+package com.cms.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class AccountForecastDTO {
+    private Long accountId;
+    private String accountNumber;
+    private String bankName;
+    private Long companyId;
+    private String companyName;
+    private String currency;
+    private BigDecimal openingBalance; // BankAccount.balance today
+    private BigDecimal closingBalance;
+    private BigDecimal lowestBalance;
+    private LocalDate lowestBalanceDate;
+    private List<LocalDate> negativeDays;
+    private List<ForecastBucketDTO> buckets;
+}
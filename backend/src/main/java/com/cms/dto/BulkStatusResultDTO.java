@@ -0,0 +1,22 @@
+package com.cms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkStatusResultDTO {
+    private List<Long> succeeded = new ArrayList<>(); // Cheque IDs
+    private List<Failure> failed = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Failure {
+        private Long chequeId;
+        private Long chequeNumber;
+        private String reason;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cms.dto;
+
+import com.cms.model.ChequeStatus;
+import lombok.Data;
+import java.util.List;
+
+/**
+ * Target of a bulk status change: either a leaf range of one book
+ * (chequeBookId, fromNumber, toNumber) or a list of cheque IDs.
+ */
+@Data
+public class BulkStatusUpdateDTO {
+    private Long chequeBookId;
+    private Long fromNumber;
+    private Long toNumber;
+    private List<Long> chequeIds;
+    private ChequeStatus status;
+    private String remarks;
+}
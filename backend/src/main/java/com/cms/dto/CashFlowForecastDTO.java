@@ -0,0 +1,19 @@
+package com.cms.dto;
+
+import com.cms.model.ForecastGranularity;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class CashFlowForecastDTO {
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private ForecastGranularity granularity;
+    private List<AccountForecastDTO> accounts;
+    // Incoming cheques not yet assigned to a deposit account
+    private List<ForecastBucketDTO> unassignedInflows;
+}
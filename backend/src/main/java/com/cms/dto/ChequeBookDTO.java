@@ -1,7 +1,10 @@
 package com.cms.dto;
 
+import com.cms.model.ChequeStatus;
+import com.cms.model.LeafMode;
 import lombok.Data;
 import java.time.LocalDate;
+import java.util.Map;
 
 @Data
 public class ChequeBookDTO {
@@ -15,8 +18,13 @@ public class ChequeBookDTO {
     private long currentNumber;
     private LocalDate issuedDate;
     private boolean active;
+    private LeafMode leafMode; // Defaults to VIRTUAL for new books
 
-    // Stats (computed)
+    // Stats (from the per-book status counters)
     private int totalLeaves;
     private int usedLeaves;
+    private int remainingLeaves;
+    private int voidedLeaves;
+    private int printedLeaves;
+    private Map<ChequeStatus, Long> statusCounts;
 }
@@ -2,11 +2,15 @@ package com.cms.dto;
 
 import com.cms.model.ChequeStatus;
 import com.cms.model.ChequeWorkflowStatus;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 
 @Data
+@NoArgsConstructor
+@AllArgsConstructor // Field order is used by the JPQL constructor expressions in ChequeRepository
 public class ChequeDTO {
     private Long id;
     private Long chequeBookId;
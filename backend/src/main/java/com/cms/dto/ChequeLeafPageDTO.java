@@ -0,0 +1,15 @@
+package com.cms.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * One keyset page of a cheque book's leaves. Pass {@code nextAfter} back as
+ * {@code after} to get the following page; it is null on the last page.
+ */
+@Data
+public class ChequeLeafPageDTO {
+    private List<ChequeDTO> items;
+    private Long nextAfter;
+    private long totalMatching; // Leaves in the book matching the status filter
+}
@@ -0,0 +1,23 @@
+package com.cms.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One rung of the maturity ladder; balances are null for inflows without a deposit account
+@Data
+@Builder
+public class ForecastBucketDTO {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private long inflowCount;
+    private BigDecimal inflowAmount;
+    private long outflowCount;
+    private BigDecimal outflowAmount;
+    private BigDecimal netFlow;
+    private BigDecimal closingBalance;
+    private BigDecimal lowestBalance; // Lowest end-of-day balance within the bucket
+    private boolean negative;
+}
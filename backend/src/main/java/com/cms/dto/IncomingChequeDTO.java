@@ -10,6 +10,8 @@ public class IncomingChequeDTO {
     private Long id;
     private Long customerId;
     private String customerName;
+    private Long depositAccountId;
+    private String depositAccountNumber;
     private String internalRef;
     private String chequeNumber;
     private LocalDate chequeDate;
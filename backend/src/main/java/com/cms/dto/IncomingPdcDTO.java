@@ -0,0 +1,27 @@
+package com.cms.dto;
+
+import com.cms.model.IncomingChequeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One open incoming cheque, projected by IncomingChequeRepository (constructor order matters)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IncomingPdcDTO {
+    private Long id;
+    private String internalRef;
+    private String chequeNumber;
+    private Long customerId;
+    private String customerName;
+    private String bankName;
+    private String branchName;
+    private BigDecimal amount;
+    private LocalDate chequeDate;
+    private LocalDate receivedDate;
+    private IncomingChequeStatus status;
+}
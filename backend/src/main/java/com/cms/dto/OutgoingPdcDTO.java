@@ -0,0 +1,26 @@
+package com.cms.dto;
+
+import com.cms.model.ChequeStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One outstanding outgoing cheque, projected by ChequeRepository (constructor order matters)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutgoingPdcDTO {
+    private Long id;
+    private Long chequeNumber;
+    private String payeeName;
+    private String vendorName;
+    private String displayPayee;
+    private BigDecimal amount;
+    private LocalDate chequeDate;
+    private ChequeStatus status;
+    private String accountNumber;
+    private String bankName;
+}
@@ -0,0 +1,22 @@
+package com.cms.dto;
+
+import com.cms.model.PrintJobStatus;
+import lombok.Builder;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class PrintJobDTO {
+    private Long id;
+    private Long templateId;
+    private PrintJobStatus status;
+    private int totalCheques;
+    private int renderedCheques;
+    private int progressPercent;
+    private Long fileSize;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,16 @@
+package com.cms.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ReportCacheStatsDTO {
+    private long hits;
+    private long misses;
+    private double hitRate;
+    private long evictions; // Dropped for size
+    private long expirations; // Dropped for age or a newer data version
+    private int entries;
+    private long cachedRows;
+}
@@ -0,0 +1,25 @@
+package com.cms.dto;
+
+import com.cms.model.ReportFormat;
+import com.cms.model.ReportJobStatus;
+import lombok.Builder;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+public class ReportJobDTO {
+    private Long id;
+    private ReportFormat format;
+    private String reportType;
+    private ReportJobStatus status;
+    private Long totalRows;
+    private long writtenRows;
+    private int progressPercent;
+    private Long fileSize;
+    private String errorMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    private LocalDateTime expiresAt;
+}
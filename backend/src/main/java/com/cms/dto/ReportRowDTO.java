@@ -0,0 +1,29 @@
+package com.cms.dto;
+
+import com.cms.model.ChequeStatus;
+import com.cms.model.ChequeWorkflowStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// One flat report line, projected by the report query (constructor order matters)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportRowDTO {
+    private Long id;
+    private Long chequeBookId;
+    private Long chequeNumber;
+    private String payeeName;
+    private String vendorName;
+    private BigDecimal amount;
+    private LocalDate chequeDate;
+    private ChequeStatus status;
+    private ChequeWorkflowStatus workflowStatus;
+    private String accountNumber;
+    private String bankName;
+    private String companyName;
+}
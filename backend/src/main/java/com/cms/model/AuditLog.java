@@ -5,7 +5,7 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs", indexes = @Index(name = "idx_audit_logs_entity", columnList = "entityType, entityId, action"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
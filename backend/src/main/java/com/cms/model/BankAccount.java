@@ -6,7 +6,10 @@ import lombok.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "bank_accounts")
+@Table(name = "bank_accounts", indexes = {
+        @Index(name = "idx_bank_accounts_company", columnList = "company_id"),
+        @Index(name = "idx_bank_accounts_branch", columnList = "branch_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -5,7 +5,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "branches")
+@Table(name = "branches", indexes = @Index(name = "idx_branches_bank", columnList = "bank_id"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,15 +1,24 @@
 package com.cms.model;
 
+import com.cms.service.ChequeWriteListener;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "cheques", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "cheque_book_id", "chequeNumber" })
+}, indexes = {
+        // Serves status-filtered keyset pages of a book's leaves
+        @Index(name = "idx_cheques_book_status_number", columnList = "cheque_book_id, status, chequeNumber"),
+        // Report date ranges, per book (company/bank filters) and per status (report types)
+        @Index(name = "idx_cheques_book_date", columnList = "cheque_book_id, chequeDate"),
+        @Index(name = "idx_cheques_status_date", columnList = "status, chequeDate")
 })
+@EntityListeners(ChequeWriteListener.class) // Invalidates cached reports
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -53,6 +62,10 @@ public class Cheque {
     // For VOID/MISSING status
     private String remarks;
 
+    // Set while a blank leaf is reserved for one maker (see ChequeLeafAllocator)
+    private Long claimedBy;
+    private LocalDateTime claimedAt;
+
     @Version
     private Long version;
 
@@ -1,10 +1,12 @@
 package com.cms.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.util.BitSet;
 
 @Entity
 @Table(name = "cheque_books")
@@ -38,4 +40,61 @@ public class ChequeBook {
     @Builder.Default
     @Column(nullable = false)
     private boolean active = true;
+
+    // Null for books created before virtual leaves existed (treated as MATERIALIZED)
+    @Enumerated(EnumType.STRING)
+    private LeafMode leafMode;
+
+    // VIRTUAL books only: bit i is set once leaf (startNumber + i) has a Cheque row.
+    // Clear bits are unused leaves that have never been written to the cheques table.
+    @JsonIgnore
+    @Column(columnDefinition = "bytea")
+    private byte[] leafBitmap;
+
+    public boolean isVirtual() {
+        return leafMode == LeafMode.VIRTUAL;
+    }
+
+    public boolean containsLeaf(long chequeNumber) {
+        return chequeNumber >= startNumber && chequeNumber <= endNumber;
+    }
+
+    public boolean isLeafMaterialized(long chequeNumber) {
+        return !isVirtual() || leafBits().get(leafIndex(chequeNumber));
+    }
+
+    public void markLeafMaterialized(long chequeNumber) {
+        BitSet bits = leafBits();
+        bits.set(leafIndex(chequeNumber));
+        leafBitmap = bits.toByteArray();
+    }
+
+    public void markLeavesMaterialized(long fromNumber, long toNumber) {
+        BitSet bits = leafBits();
+        bits.set(leafIndex(fromNumber), leafIndex(toNumber) + 1);
+        leafBitmap = bits.toByteArray();
+    }
+
+    /**
+     * Lowest leaf number at or after {@code fromNumber} that has no Cheque row yet,
+     * or -1 when the rest of the book is materialized.
+     */
+    public long nextUnmaterializedLeaf(long fromNumber) {
+        int index = leafBits().nextClearBit(leafIndex(Math.max(fromNumber, startNumber)));
+        long number = startNumber + index;
+        return number <= endNumber ? number : -1;
+    }
+
+    @JsonIgnore
+    public BitSet getLeafBits() {
+        return leafBits();
+    }
+
+    private BitSet leafBits() {
+        return leafBitmap != null ? BitSet.valueOf(leafBitmap) : new BitSet();
+    }
+
+    private int leafIndex(long chequeNumber) {
+        return (int) (chequeNumber - startNumber);
+    }
 }
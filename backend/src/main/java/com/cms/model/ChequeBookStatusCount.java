@@ -0,0 +1,33 @@
+package com.cms.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Number of leaves of one cheque book in one status. Unused virtual leaves are
+ * counted too, so the counts of a book always add up to its total leaves.
+ */
+@Entity
+@Table(name = "cheque_book_status_counts", uniqueConstraints = {
+        @UniqueConstraint(columnNames = { "cheque_book_id", "status" })
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChequeBookStatusCount {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cheque_book_id", nullable = false)
+    private Long chequeBookId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChequeStatus status;
+
+    @Column(nullable = false)
+    private long leafCount;
+}
@@ -0,0 +1,54 @@
+package com.cms.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Number and total amount of the cheques of one company, bank account, direction,
+ * status and cheque date. Kept current by database triggers on the cheque tables
+ * (see {@code ChequeRollupInitializer}), so every write path is covered, including
+ * bulk JDBC updates. Groups that become empty stay at zero until the next rebuild.
+ * <p>
+ * Incoming cheques are grouped under their deposit account, or under none if it is
+ * not known yet; leaves not yet written have no date.
+ */
+@Entity
+@Table(name = "cheque_daily_rollups", indexes = {
+        @Index(name = "idx_cheque_rollups_company_date", columnList = "company_id, cheque_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChequeDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "company_id", nullable = false)
+    private Long companyId;
+
+    @Column(name = "bank_account_id")
+    private Long bankAccountId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ChequeDirection direction;
+
+    // A ChequeStatus or IncomingChequeStatus name, depending on the direction
+    @Column(nullable = false)
+    private String status;
+
+    @Column(name = "cheque_date")
+    private LocalDate chequeDate;
+
+    @Column(nullable = false)
+    private long chequeCount;
+
+    @Column(nullable = false)
+    private BigDecimal amountSum;
+}
@@ -0,0 +1,6 @@
+package com.cms.model;
+
+public enum ChequeDirection {
+    OUTGOING, // Cheque: issued by one of our companies
+    INCOMING  // IncomingCheque: received from a customer
+}
@@ -1,5 +1,8 @@
 package com.cms.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum ChequeStatus {
     UNUSED,
     ISSUED,
@@ -10,5 +13,34 @@ public enum ChequeStatus {
     CANCELLED,
     VOID,
     MISSING,
-    SETTLED
+    SETTLED;
+
+    /**
+     * Lifecycle rules enforced by bulk status changes. A found MISSING leaf can
+     * go back to UNUSED; CANCELLED, VOID and SETTLED are final.
+     */
+    public boolean canTransitionTo(ChequeStatus target) {
+        return allowedTargets().contains(target);
+    }
+
+    private Set<ChequeStatus> allowedTargets() {
+        switch (this) {
+            case UNUSED:
+                return EnumSet.of(ISSUED, VOID, MISSING, CANCELLED);
+            case ISSUED:
+                return EnumSet.of(PRINTED, DUE, CLEARED, BOUNCED, CANCELLED, VOID, SETTLED);
+            case PRINTED:
+                return EnumSet.of(DUE, CLEARED, BOUNCED, CANCELLED, VOID, SETTLED);
+            case DUE:
+                return EnumSet.of(CLEARED, BOUNCED, CANCELLED, SETTLED);
+            case BOUNCED:
+                return EnumSet.of(DUE, SETTLED, CANCELLED);
+            case CLEARED:
+                return EnumSet.of(SETTLED);
+            case MISSING:
+                return EnumSet.of(UNUSED, VOID);
+            default:
+                return EnumSet.noneOf(ChequeStatus.class);
+        }
+    }
 }
@@ -31,4 +31,7 @@ public class ChequeTemplate {
     @Builder.Default
     @Column(nullable = false)
     private boolean active = true;
+
+    // Bumped on every update; compiled print layouts are cached per (id, layoutVersion)
+    private Long layoutVersion;
 }
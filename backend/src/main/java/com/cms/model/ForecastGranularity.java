@@ -0,0 +1,7 @@
+package com.cms.model;
+
+public enum ForecastGranularity {
+    DAY,
+    WEEK, // Monday to Sunday
+    MONTH
+}
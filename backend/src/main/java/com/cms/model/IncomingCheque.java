@@ -23,6 +23,12 @@ public class IncomingCheque {
     @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
     private Customer customer;
 
+    // Account the cheque will be paid into, if known; used by the cash-flow forecast
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "deposit_account_id")
+    @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
+    private BankAccount depositAccount;
+
     @Column(nullable = false, unique = true)
     private String internalRef; // Auto-generated
 
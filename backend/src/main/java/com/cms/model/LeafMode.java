@@ -0,0 +1,6 @@
+package com.cms.model;
+
+public enum LeafMode {
+    MATERIALIZED, // One Cheque row per leaf, generated when the book is created
+    VIRTUAL // Cheque rows are only created when a leaf is issued, voided or marked missing
+}
@@ -0,0 +1,55 @@
+package com.cms.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "print_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PrintJob implements SpoolJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long templateId;
+
+    // Comma separated, in print order
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String chequeIds;
+
+    @Column(nullable = false)
+    private Integer totalCheques;
+
+    // Draw the template background on every page
+    private Boolean withBackground;
+
+    @Builder.Default
+    private Integer renderedCheques = 0;
+
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    @Column(nullable = false)
+    private PrintJobStatus status = PrintJobStatus.QUEUED;
+
+    private String spoolPath;
+
+    private Long fileSize;
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    private Long requestedBy;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,9 @@
+package com.cms.model;
+
+public enum PrintJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    EXPIRED // Spool file removed after the retention period
+}
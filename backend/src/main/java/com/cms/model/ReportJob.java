@@ -0,0 +1,60 @@
+package com.cms.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "report_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReportJob implements SpoolJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ReportFormat format;
+
+    // The ReportFilterDTO as JSON, replayed by the worker
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String filter;
+
+    private String reportType;
+
+    // Concurrency is limited per company; null = a report across all companies
+    private Long companyId;
+
+    private Long totalRows;
+
+    @Builder.Default
+    private Long writtenRows = 0L;
+
+    @Enumerated(EnumType.STRING)
+    @Builder.Default
+    @Column(nullable = false)
+    private ReportJobStatus status = ReportJobStatus.QUEUED;
+
+    private String spoolPath;
+
+    private Long fileSize;
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    private Long requestedBy;
+
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    private LocalDateTime startedAt;
+
+    private LocalDateTime completedAt;
+
+    // When the spool file is purged and the download stops working
+    private LocalDateTime expiresAt;
+}
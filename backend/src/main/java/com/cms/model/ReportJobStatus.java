@@ -0,0 +1,9 @@
+package com.cms.model;
+
+public enum ReportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    EXPIRED // Spool file removed after the retention period
+}
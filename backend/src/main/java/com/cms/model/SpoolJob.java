@@ -0,0 +1,21 @@
+package com.cms.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A background job whose output is written to a spool file for download.
+ */
+public interface SpoolJob {
+
+    Long getId();
+
+    Long getRequestedBy();
+
+    String getSpoolPath();
+
+    void setSpoolPath(String spoolPath);
+
+    void setErrorMessage(String errorMessage);
+
+    void setCompletedAt(LocalDateTime completedAt);
+}
@@ -0,0 +1,38 @@
+package com.cms.repository;
+
+import com.cms.model.AuditLog;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Writes many audit rows in one JDBC batch. {@code AuditLog} uses IDENTITY keys,
+ * which stops Hibernate from batching {@code saveAll}.
+ */
+@Repository
+public class AuditLogBulkWriter {
+
+    private static final String INSERT_LOG = "INSERT INTO audit_logs "
+            + "(entity_type, entity_id, action, user_id, old_value, new_value, timestamp) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public AuditLogBulkWriter(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void insertAll(List<AuditLog> logs) {
+        jdbcTemplate.batchUpdate(INSERT_LOG, logs, 1000, (ps, log) -> {
+            ps.setString(1, log.getEntityType());
+            ps.setLong(2, log.getEntityId());
+            ps.setString(3, log.getAction());
+            ps.setObject(4, log.getUserId());
+            ps.setString(5, log.getOldValue());
+            ps.setString(6, log.getNewValue());
+            ps.setTimestamp(7, Timestamp.valueOf(log.getTimestamp()));
+        });
+    }
+}
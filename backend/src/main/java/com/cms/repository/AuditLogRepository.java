@@ -1,12 +1,35 @@
 package com.cms.repository;
 
+import com.cms.dto.AuditLogDTO;
 import com.cms.model.AuditLog;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     List<AuditLog> findByEntityIdAndEntityType(Long entityId, String entityType);
+
+    // Audit rows with the username joined in
+    String DTO_QUERY = "SELECT new com.cms.dto.AuditLogDTO(a.id, a.entityType, a.entityId, a.action, a.userId, "
+            + "COALESCE(u.username, CASE WHEN a.userId IS NULL THEN 'System' ELSE 'Unknown' END), "
+            + "a.oldValue, a.newValue, a.timestamp) "
+            + "FROM AuditLog a LEFT JOIN User u ON u.id = a.userId ORDER BY a.id";
+
+    @Query(DTO_QUERY)
+    List<AuditLogDTO> findAllAsDTO();
+
+    // The same rows read through a cursor for export; close within a transaction
+    @Query(DTO_QUERY)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<AuditLogDTO> streamAllForExport();
 }
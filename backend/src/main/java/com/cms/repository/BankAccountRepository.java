@@ -2,11 +2,18 @@ package com.cms.repository;
 
 import com.cms.model.BankAccount;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface BankAccountRepository extends JpaRepository<BankAccount, Long> {
-    List<BankAccount> findByCompanyId(Long companyId);
+    // Everything the account DTO shows, in one query
+    @Query("SELECT a FROM BankAccount a JOIN FETCH a.company JOIN FETCH a.branch b JOIN FETCH b.bank WHERE a.company.id = :companyId")
+    List<BankAccount> findByCompanyId(@Param("companyId") Long companyId);
+
+    @Query("SELECT a FROM BankAccount a JOIN FETCH a.company JOIN FETCH a.branch b JOIN FETCH b.bank")
+    List<BankAccount> findAllWithDetails();
 }
@@ -0,0 +1,32 @@
+package com.cms.repository;
+
+import com.cms.model.ChequeBookStatusCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ChequeBookStatusCountRepository extends JpaRepository<ChequeBookStatusCount, Long> {
+    List<ChequeBookStatusCount> findByChequeBookId(Long chequeBookId);
+
+    List<ChequeBookStatusCount> findByChequeBookIdIn(Collection<Long> chequeBookIds);
+
+    @Modifying
+    void deleteByChequeBookId(Long chequeBookId);
+
+    // Atomic in-place increment, so concurrent transitions on one book never lose an update
+    @Modifying
+    @Query(value = "INSERT INTO cheque_book_status_counts (cheque_book_id, status, leaf_count) "
+            + "VALUES (:bookId, :status, :delta) ON CONFLICT (cheque_book_id, status) "
+            + "DO UPDATE SET leaf_count = cheque_book_status_counts.leaf_count + EXCLUDED.leaf_count", nativeQuery = true)
+    void addToCount(@Param("bookId") Long bookId, @Param("status") String status, @Param("delta") long delta);
+
+    @Query("SELECT cb.id FROM ChequeBook cb WHERE NOT EXISTS "
+            + "(SELECT 1 FROM ChequeBookStatusCount c WHERE c.chequeBookId = cb.id)")
+    List<Long> findBookIdsWithoutCounts();
+}
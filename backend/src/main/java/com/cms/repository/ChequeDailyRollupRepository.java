@@ -0,0 +1,89 @@
+package com.cms.repository;
+
+import com.cms.dto.PdcSummaryDTO;
+import com.cms.model.ChequeDailyRollup;
+import com.cms.model.ChequeDirection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ChequeDailyRollupRepository extends JpaRepository<ChequeDailyRollup, Long> {
+
+    // Same expressions as the unique index created by ChequeRollupInitializer, so ON CONFLICT can infer it
+    String GROUP_KEY = "company_id, (COALESCE(bank_account_id, 0)), direction, status, "
+            + "(COALESCE(cheque_date, DATE '0001-01-01'))";
+
+    // First key of the per-company advisory locks: the triggers take a company's lock shared,
+    // a rebuild of that company exclusively
+    int COMPANY_LOCK = 0x524f4c4c;
+
+    // Summaries read groups, not cheques; a null companyId means all companies
+    @Query("SELECT new com.cms.dto.PdcSummaryDTO('Outgoing', SUM(r.chequeCount), SUM(r.amountSum), r.status) "
+            + "FROM ChequeDailyRollup r WHERE r.direction = com.cms.model.ChequeDirection.OUTGOING "
+            + "AND r.status IN ('ISSUED', 'PRINTED', 'DUE', 'CLEARED', 'BOUNCED') "
+            + "AND (:companyId IS NULL OR r.companyId = :companyId) "
+            + "GROUP BY r.status HAVING SUM(r.chequeCount) > 0")
+    List<PdcSummaryDTO> getOutgoingChequeSummary(@Param("companyId") Long companyId);
+
+    @Query("SELECT new com.cms.dto.PdcSummaryDTO('Incoming', SUM(r.chequeCount), SUM(r.amountSum), r.status) "
+            + "FROM ChequeDailyRollup r WHERE r.direction = com.cms.model.ChequeDirection.INCOMING "
+            + "AND (:companyId IS NULL OR r.companyId = :companyId) "
+            + "GROUP BY r.status HAVING SUM(r.chequeCount) > 0")
+    List<PdcSummaryDTO> getIncomingChequeSummary(@Param("companyId") Long companyId);
+
+    @Query("SELECT COALESCE(SUM(r.chequeCount), 0) FROM ChequeDailyRollup r WHERE r.direction = :direction "
+            + "AND r.status = :status AND r.chequeDate = :date AND (:companyId IS NULL OR r.companyId = :companyId)")
+    long countOnDate(@Param("direction") ChequeDirection direction, @Param("status") String status,
+            @Param("date") LocalDate date, @Param("companyId") Long companyId);
+
+    // [bankAccountId, direction, chequeDate, count, amount] of cheques still to be paid or collected
+    // up to toDate, overdue ones included; a null companyId means all companies
+    @Query("SELECT r.bankAccountId, r.direction, r.chequeDate, SUM(r.chequeCount), SUM(r.amountSum) "
+            + "FROM ChequeDailyRollup r WHERE r.chequeDate <= :toDate AND r.chequeCount > 0 "
+            + "AND ((r.direction = com.cms.model.ChequeDirection.OUTGOING "
+            + "AND r.status IN ('ISSUED', 'PRINTED', 'DUE')) "
+            + "OR (r.direction = com.cms.model.ChequeDirection.INCOMING "
+            + "AND r.status IN ('CREATED', 'PENDING', 'DUE', 'DEPOSITED'))) "
+            + "AND (:companyId IS NULL OR r.companyId = :companyId) "
+            + "GROUP BY r.bankAccountId, r.direction, r.chequeDate")
+    List<Object[]> findExpectedFlows(@Param("toDate") LocalDate toDate, @Param("companyId") Long companyId);
+
+    // Waits for cheque writes of the company in flight, and holds off new ones (their trigger
+    // deltas), until the rebuilding transaction ends
+    @Query(value = "SELECT COUNT(*) FROM (SELECT pg_advisory_xact_lock(" + COMPANY_LOCK + ", "
+            + "CAST(:companyId AS integer))) l", nativeQuery = true)
+    long lockCompany(@Param("companyId") Long companyId);
+
+    @Modifying
+    @Query(value = "DELETE FROM cheque_daily_rollups WHERE company_id = :companyId", nativeQuery = true)
+    int deleteCompanyGroups(@Param("companyId") Long companyId);
+
+    @Modifying
+    @Query(value = "DELETE FROM cheque_daily_rollups WHERE company_id NOT IN (SELECT id FROM companies)",
+            nativeQuery = true)
+    int deleteOrphanGroups();
+
+    @Modifying
+    @Query(value = "INSERT INTO cheque_daily_rollups "
+            + "(company_id, bank_account_id, direction, status, cheque_date, cheque_count, amount_sum) "
+            + "SELECT a.company_id, b.account_id, 'OUTGOING', c.status, c.cheque_date, COUNT(*), "
+            + "COALESCE(SUM(c.amount), 0) FROM cheques c JOIN cheque_books b ON b.id = c.cheque_book_id "
+            + "JOIN bank_accounts a ON a.id = b.account_id WHERE a.company_id = :companyId "
+            + "GROUP BY a.company_id, b.account_id, c.status, c.cheque_date", nativeQuery = true)
+    int rebuildOutgoing(@Param("companyId") Long companyId);
+
+    @Modifying
+    @Query(value = "INSERT INTO cheque_daily_rollups "
+            + "(company_id, bank_account_id, direction, status, cheque_date, cheque_count, amount_sum) "
+            + "SELECT cu.company_id, c.deposit_account_id, 'INCOMING', c.status, c.cheque_date, COUNT(*), "
+            + "COALESCE(SUM(c.amount), 0) FROM incoming_cheques c JOIN customers cu ON cu.id = c.customer_id "
+            + "WHERE cu.company_id = :companyId "
+            + "GROUP BY cu.company_id, c.deposit_account_id, c.status, c.cheque_date", nativeQuery = true)
+    int rebuildIncoming(@Param("companyId") Long companyId);
+}
@@ -0,0 +1,90 @@
+package com.cms.repository;
+
+import com.cms.model.ChequeStatus;
+import com.cms.model.ChequeWorkflowStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based writes to the cheques table.
+ * <p>
+ * {@code Cheque} uses IDENTITY keys, so Hibernate cannot batch its inserts and
+ * {@code saveAll} costs one round trip per leaf. Here the whole range is
+ * generated server-side by a single INSERT ... SELECT over generate_series.
+ */
+@Repository
+public class ChequeLeafBulkWriter {
+
+    private static final String INSERT_LEAVES = "INSERT INTO cheques "
+            + "(cheque_book_id, cheque_number, status, workflow_status, print_count, version) "
+            + "SELECT ?, n, ?, ?, 0, 0 FROM generate_series(?::bigint, ?::bigint) AS n "
+            + "ON CONFLICT (cheque_book_id, cheque_number) DO NOTHING";
+
+    // (id, version) pairs keep the optimistic lock of Cheque.version for every row
+    private static final String UPDATE_STATUS = "UPDATE cheques SET status = :toStatus, "
+            + "remarks = COALESCE(:remarks, remarks), version = version + 1 "
+            + "WHERE (id, version) IN (:idVersions) AND status = :fromStatus RETURNING id";
+
+    private static final String INCREMENT_PRINT_COUNT = "UPDATE cheques "
+            + "SET print_count = COALESCE(print_count, 0) + 1, version = version + 1 "
+            + "WHERE id IN (:ids) RETURNING id, print_count, version";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    public ChequeLeafBulkWriter(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+    }
+
+    /**
+     * Inserts one UNUSED cheque per number in [startNumber, endNumber] that has no
+     * row yet. Participates in the caller's transaction.
+     *
+     * @return number of rows written
+     */
+    public int insertUnusedLeaves(Long chequeBookId, long startNumber, long endNumber) {
+        return jdbcTemplate.update(INSERT_LEAVES, chequeBookId, ChequeStatus.UNUSED.name(),
+                ChequeWorkflowStatus.DRAFT.name(), startNumber, endNumber);
+    }
+
+    /**
+     * Moves the given cheques from one status to another in a single UPDATE. A row
+     * is skipped if its version or status changed since it was read.
+     *
+     * @param idVersions {id, version} pairs
+     * @return ids of the rows actually updated
+     */
+    public List<Long> updateStatus(List<Object[]> idVersions, ChequeStatus fromStatus, ChequeStatus toStatus,
+            String remarks) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("idVersions", idVersions)
+                .addValue("fromStatus", fromStatus.name())
+                .addValue("toStatus", toStatus.name())
+                .addValue("remarks", remarks, java.sql.Types.VARCHAR);
+        return namedJdbcTemplate.queryForList(UPDATE_STATUS, params, Long.class);
+    }
+
+    /**
+     * Adds one to the print count of every given cheque in a single UPDATE. The row
+     * lock taken by the UPDATE makes the returned counts exact even when the same
+     * cheque is printed concurrently.
+     *
+     * @return new {printCount, version} by cheque id
+     */
+    public Map<Long, long[]> incrementPrintCount(List<Long> chequeIds) {
+        Map<Long, long[]> counts = new HashMap<>();
+        namedJdbcTemplate.query(INCREMENT_PRINT_COUNT, new MapSqlParameterSource("ids", chequeIds),
+                rs -> {
+                    counts.put(rs.getLong("id"), new long[] { rs.getLong("print_count"), rs.getLong("version") });
+                });
+        return counts;
+    }
+}
@@ -0,0 +1,158 @@
+package com.cms.repository;
+
+import com.cms.dto.ReportFilterDTO;
+import com.cms.dto.ReportRowDTO;
+import com.cms.model.*;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * The cheque report as one Criteria query: every filter becomes a predicate over
+ * explicit joins and rows are projected straight to {@link ReportRowDTO}, so the
+ * cost follows the result size and no entity or lazy association is loaded.
+ */
+@Repository
+public class ChequeReportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${app.reports.fetch-size:500}")
+    private int fetchSize;
+
+    public List<ReportRowDTO> findRows(ReportFilterDTO filter) {
+        return createQuery(filter).getResultList();
+    }
+
+    /**
+     * The same rows read through a server-side cursor, {@code fetchSize} at a time.
+     * Must be consumed and closed inside a transaction (PostgreSQL only uses a cursor
+     * with auto-commit off); projected rows are not managed, so the session stays empty.
+     */
+    public Stream<ReportRowDTO> streamRows(ReportFilterDTO filter) {
+        return createQuery(filter)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /** Number of rows {@link #findRows} would return, for progress reporting. */
+    public long countRows(ReportFilterDTO filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Cheque> cheque = query.from(Cheque.class);
+        Join<ChequeBook, BankAccount> account = cheque.join("chequeBook").join("account");
+        Join<BankAccount, Branch> branch = account.join("branch");
+
+        query.select(cb.count(cheque));
+        query.where(predicates(filter, cb, query, cheque, account, branch).toArray(new Predicate[0]));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private TypedQuery<ReportRowDTO> createQuery(ReportFilterDTO filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ReportRowDTO> query = cb.createQuery(ReportRowDTO.class);
+        Root<Cheque> cheque = query.from(Cheque.class);
+        Join<Cheque, ChequeBook> book = cheque.join("chequeBook");
+        Join<ChequeBook, BankAccount> account = book.join("account");
+        Join<BankAccount, Company> company = account.join("company");
+        Join<BankAccount, Branch> branch = account.join("branch");
+        Join<Branch, Bank> bank = branch.join("bank");
+        Join<Cheque, Vendor> vendor = cheque.join("vendor", JoinType.LEFT);
+
+        query.select(cb.construct(ReportRowDTO.class,
+                cheque.get("id"),
+                book.get("id"),
+                cheque.get("chequeNumber"),
+                cheque.get("payeeName"),
+                vendor.get("name"),
+                cheque.get("amount"),
+                cheque.get("chequeDate"),
+                cheque.get("status"),
+                cheque.get("workflowStatus"),
+                account.get("accountNumber"),
+                bank.get("name"),
+                company.get("name")));
+        query.where(predicates(filter, cb, query, cheque, account, branch).toArray(new Predicate[0]));
+        query.orderBy(cb.asc(cheque.get("chequeDate")), cb.asc(cheque.get("chequeNumber")));
+
+        return entityManager.createQuery(query);
+    }
+
+    private List<Predicate> predicates(ReportFilterDTO filter, CriteriaBuilder cb, CriteriaQuery<?> query,
+            Root<Cheque> cheque, Join<ChequeBook, BankAccount> account, Join<BankAccount, Branch> branch) {
+        List<Predicate> predicates = new ArrayList<>();
+        Path<ChequeStatus> status = cheque.get("status");
+        Path<LocalDate> chequeDate = cheque.get("chequeDate");
+
+        if (filter.getCompanyId() != null) {
+            predicates.add(cb.equal(account.get("company").get("id"), filter.getCompanyId()));
+        }
+        if (filter.getBankId() != null) {
+            predicates.add(cb.equal(branch.get("bank").get("id"), filter.getBankId()));
+        }
+        if (filter.getStatus() != null && !filter.getStatus().isEmpty()) {
+            predicates.add(cb.equal(status, parseStatus(filter.getStatus())));
+        }
+        if (filter.getStartDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(chequeDate, filter.getStartDate()));
+        }
+        if (filter.getEndDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(chequeDate, filter.getEndDate()));
+        }
+        if (filter.getUserId() != null) {
+            // Cheques the user created, per the audit trail
+            Subquery<Long> created = query.subquery(Long.class);
+            Root<AuditLog> log = created.from(AuditLog.class);
+            created.select(log.get("id")).where(
+                    cb.equal(log.get("entityType"), "Cheque"),
+                    cb.equal(log.get("entityId"), cheque.get("id")),
+                    cb.equal(log.get("action"), "CREATE"),
+                    cb.equal(log.get("userId"), filter.getUserId()));
+            predicates.add(cb.exists(created));
+        }
+        if (filter.getReportType() != null && !filter.getReportType().isEmpty()) {
+            predicates.add(reportTypePredicate(filter.getReportType(), cb, cheque, status, chequeDate));
+        }
+        return predicates;
+    }
+
+    private Predicate reportTypePredicate(String reportType, CriteriaBuilder cb, Root<Cheque> cheque,
+            Path<ChequeStatus> status, Path<LocalDate> chequeDate) {
+        switch (reportType.toUpperCase()) {
+            case "REGISTER": // Every leaf that was written
+                return cb.notEqual(status, ChequeStatus.UNUSED);
+            case "PDC": // Outstanding post-dated cheques
+                return status.in(EnumSet.of(ChequeStatus.ISSUED, ChequeStatus.PRINTED, ChequeStatus.DUE));
+            case "CLEARED":
+                return cb.equal(status, ChequeStatus.CLEARED);
+            case "BOUNCED":
+                return cb.equal(status, ChequeStatus.BOUNCED);
+            case "PENDING": // Written up but not issued yet (e.g. awaiting approval)
+                return cb.and(cb.equal(status, ChequeStatus.UNUSED), cb.isNotNull(cheque.get("amount")));
+            case "OVERDUE": // Due but not presented or cleared after the cheque date
+                return cb.and(cb.equal(status, ChequeStatus.DUE), cb.lessThan(chequeDate, LocalDate.now()));
+            default:
+                throw new RuntimeException("Unknown report type: " + reportType);
+        }
+    }
+
+    private ChequeStatus parseStatus(String status) {
+        try {
+            return ChequeStatus.valueOf(status.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown cheque status: " + status);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ChequeRepository extends JpaRepository<Cheque, Long> {
@@ -12,18 +13,76 @@ public interface ChequeRepository extends JpaRepository<Cheque, Long> {
 
     List<Cheque> findByChequeBookIdOrderByChequeNumberAsc(Long chequeBookId);
 
+    Optional<Cheque> findByChequeBookIdAndChequeNumber(Long chequeBookId, Long chequeNumber);
+
+    // Keyset pages of a book's leaves, projected straight to ChequeDTO (one query, no lazy loads)
+    @org.springframework.data.jpa.repository.Query("SELECT new com.cms.dto.ChequeDTO(c.id, c.chequeBook.id, c.chequeNumber, c.status, c.amount, c.payeeName, c.chequeDate, v.id, v.name, c.workflowStatus, c.remarks, c.printCount) "
+            + "FROM Cheque c LEFT JOIN c.vendor v WHERE c.chequeBook.id = :bookId "
+            + "AND c.chequeNumber BETWEEN :fromNumber AND :toNumber ORDER BY c.chequeNumber")
+    List<com.cms.dto.ChequeDTO> findLeafRange(@org.springframework.data.repository.query.Param("bookId") Long bookId,
+            @org.springframework.data.repository.query.Param("fromNumber") long fromNumber,
+            @org.springframework.data.repository.query.Param("toNumber") long toNumber);
+
+    @org.springframework.data.jpa.repository.Query("SELECT new com.cms.dto.ChequeDTO(c.id, c.chequeBook.id, c.chequeNumber, c.status, c.amount, c.payeeName, c.chequeDate, v.id, v.name, c.workflowStatus, c.remarks, c.printCount) "
+            + "FROM Cheque c LEFT JOIN c.vendor v WHERE c.chequeBook.id = :bookId AND c.status = :status "
+            + "AND c.chequeNumber >= :fromNumber ORDER BY c.chequeNumber")
+    List<com.cms.dto.ChequeDTO> findLeafPageByStatus(@org.springframework.data.repository.query.Param("bookId") Long bookId,
+            @org.springframework.data.repository.query.Param("status") com.cms.model.ChequeStatus status,
+            @org.springframework.data.repository.query.Param("fromNumber") long fromNumber,
+            org.springframework.data.domain.Pageable pageable);
+
+    // Free = never filled in (rejected issues are reset to this state) and not reserved by a
+    // claim made after :claimExpiry
+    String FREE_LEAF = "status = 'UNUSED' AND amount IS NULL AND payee_name IS NULL "
+            + "AND (claimed_at IS NULL OR claimed_at < :claimExpiry)";
+
+    // Rows locked by another clerk's claim are skipped rather than waited on
+    @org.springframework.data.jpa.repository.Query(value = "SELECT * FROM cheques WHERE cheque_book_id = :bookId "
+            + "AND cheque_number BETWEEN :fromNumber AND :toNumber AND " + FREE_LEAF
+            + " ORDER BY cheque_number FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Cheque> findFreeLeavesForUpdate(@org.springframework.data.repository.query.Param("bookId") Long bookId,
+            @org.springframework.data.repository.query.Param("fromNumber") long fromNumber,
+            @org.springframework.data.repository.query.Param("toNumber") long toNumber,
+            @org.springframework.data.repository.query.Param("claimExpiry") java.time.LocalDateTime claimExpiry);
+
+    // First number of the lowest run of `count` consecutive free leaves in the range, in one
+    // scan: within a run, cheque_number minus its rank among free leaves is constant
+    @org.springframework.data.jpa.repository.Query(value = "SELECT MIN(cheque_number) FROM ("
+            + "SELECT cheque_number, cheque_number - ROW_NUMBER() OVER (ORDER BY cheque_number) AS run "
+            + "FROM cheques WHERE cheque_book_id = :bookId AND cheque_number BETWEEN :fromNumber AND :toNumber "
+            + "AND " + FREE_LEAF + ") free_leaves "
+            + "GROUP BY run HAVING COUNT(*) >= :count ORDER BY MIN(cheque_number) LIMIT 1", nativeQuery = true)
+    Long findFirstFreeRun(@org.springframework.data.repository.query.Param("bookId") Long bookId,
+            @org.springframework.data.repository.query.Param("fromNumber") long fromNumber,
+            @org.springframework.data.repository.query.Param("toNumber") long toNumber,
+            @org.springframework.data.repository.query.Param("count") int count,
+            @org.springframework.data.repository.query.Param("claimExpiry") java.time.LocalDateTime claimExpiry);
+
     List<Cheque> findByStatusAndChequeDateLessThanEqual(com.cms.model.ChequeStatus status, java.time.LocalDate date);
 
     List<Cheque> findByStatusAndChequeDate(com.cms.model.ChequeStatus status, java.time.LocalDate date);
 
     long countByStatus(com.cms.model.ChequeStatus status);
 
-    // Aggregation for reports
-    @org.springframework.data.jpa.repository.Query("SELECT new com.cms.dto.PdcSummaryDTO('Outgoing', COUNT(c), SUM(c.amount), CAST(c.status AS string)) FROM Cheque c WHERE c.status IN ('ISSUED', 'PRINTED', 'DUE', 'CLEARED', 'BOUNCED') GROUP BY c.status")
-    List<com.cms.dto.PdcSummaryDTO> getOutgoingChequeSummary();
+    // [id, chequeBookId, chequeNumber, status, version] rows for bulk status changes
+    @org.springframework.data.jpa.repository.Query("SELECT c.id, c.chequeBook.id, c.chequeNumber, c.status, c.version FROM Cheque c WHERE c.id IN :ids")
+    List<Object[]> findStatusRowsByIds(@org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids);
+
+    @org.springframework.data.jpa.repository.Query("SELECT c.id, c.chequeBook.id, c.chequeNumber, c.status, c.version FROM Cheque c "
+            + "WHERE c.chequeBook.id = :bookId AND c.chequeNumber BETWEEN :fromNumber AND :toNumber ORDER BY c.chequeNumber")
+    List<Object[]> findStatusRowsByRange(@org.springframework.data.repository.query.Param("bookId") Long bookId,
+            @org.springframework.data.repository.query.Param("fromNumber") long fromNumber,
+            @org.springframework.data.repository.query.Param("toNumber") long toNumber);
 
-    @org.springframework.data.jpa.repository.Query("SELECT c FROM Cheque c LEFT JOIN FETCH c.chequeBook cb LEFT JOIN FETCH cb.account a LEFT JOIN FETCH a.branch b LEFT JOIN FETCH b.bank LEFT JOIN FETCH c.vendor WHERE c.status IN ('ISSUED', 'PRINTED', 'DUE') ORDER BY c.chequeDate ASC")
-    List<Cheque> findActiveOutgoingCheques();
+    // [status, count] pairs for one book; used to rebuild the per-book counters
+    @org.springframework.data.jpa.repository.Query("SELECT c.status, COUNT(c) FROM Cheque c WHERE c.chequeBook.id = :bookId GROUP BY c.status")
+    List<Object[]> countByStatusForBook(@org.springframework.data.repository.query.Param("bookId") Long bookId);
+
+    @org.springframework.data.jpa.repository.Query("SELECT new com.cms.dto.OutgoingPdcDTO(c.id, c.chequeNumber, c.payeeName, v.name, COALESCE(NULLIF(c.payeeName, ''), v.name, 'Unknown'), c.amount, c.chequeDate, c.status, a.accountNumber, b.name) FROM Cheque c JOIN c.chequeBook cb JOIN cb.account a JOIN a.branch br JOIN br.bank b LEFT JOIN c.vendor v WHERE c.status IN ('ISSUED', 'PRINTED', 'DUE') ORDER BY c.chequeDate ASC")
+    List<com.cms.dto.OutgoingPdcDTO> findActiveOutgoingCheques();
 
     List<Cheque> findTop5ByOrderByIdDesc();
+
+    @org.springframework.data.jpa.repository.Query("SELECT c FROM Cheque c LEFT JOIN FETCH c.chequeBook cb LEFT JOIN FETCH cb.account a LEFT JOIN FETCH a.branch b LEFT JOIN FETCH b.bank LEFT JOIN FETCH a.company LEFT JOIN FETCH c.vendor WHERE c.id IN :ids")
+    List<Cheque> findAllForPrinting(@org.springframework.data.repository.query.Param("ids") java.util.Collection<Long> ids);
 }
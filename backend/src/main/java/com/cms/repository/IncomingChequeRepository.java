@@ -21,12 +21,11 @@ public interface IncomingChequeRepository extends JpaRepository<IncomingCheque,
 
     List<IncomingCheque> findByStatusAndChequeDate(com.cms.model.IncomingChequeStatus status, LocalDate date);
 
-    // Aggregation for reports
-    @org.springframework.data.jpa.repository.Query("SELECT new com.cms.dto.PdcSummaryDTO('Incoming', COUNT(c), SUM(c.amount), CAST(c.status AS string)) FROM IncomingCheque c GROUP BY c.status")
-    List<com.cms.dto.PdcSummaryDTO> getIncomingChequeSummary();
+    @org.springframework.data.jpa.repository.Query("SELECT new com.cms.dto.IncomingPdcDTO(c.id, c.internalRef, c.chequeNumber, cu.id, cu.name, c.bankName, c.branchName, c.amount, c.chequeDate, c.receivedDate, c.status) FROM IncomingCheque c JOIN c.customer cu WHERE c.status IN ('PENDING', 'CREATED', 'DUE', 'DEPOSITED', 'BOUNCED', 'RETURNED') ORDER BY c.chequeDate ASC")
+    List<com.cms.dto.IncomingPdcDTO> findActiveIncomingCheques();
 
-    @org.springframework.data.jpa.repository.Query("SELECT c FROM IncomingCheque c LEFT JOIN FETCH c.customer WHERE c.status IN ('PENDING', 'CREATED', 'DUE', 'DEPOSITED', 'BOUNCED', 'RETURNED') ORDER BY c.chequeDate ASC")
-    List<IncomingCheque> findActiveIncomingCheques();
+    @org.springframework.data.jpa.repository.Query("SELECT c FROM IncomingCheque c JOIN FETCH c.customer LEFT JOIN FETCH c.depositAccount")
+    List<IncomingCheque> findAllWithCustomer();
 
     List<IncomingCheque> findTop5ByOrderByIdDesc();
 }
@@ -0,0 +1,17 @@
+package com.cms.repository;
+
+import com.cms.model.PrintJob;
+import com.cms.model.PrintJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface PrintJobRepository extends JpaRepository<PrintJob, Long> {
+    List<PrintJob> findByStatusIn(Collection<PrintJobStatus> statuses);
+
+    List<PrintJob> findByStatusAndCompletedAtBefore(PrintJobStatus status, LocalDateTime cutoff);
+}
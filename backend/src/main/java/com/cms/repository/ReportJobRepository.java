@@ -0,0 +1,17 @@
+package com.cms.repository;
+
+import com.cms.model.ReportJob;
+import com.cms.model.ReportJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+    List<ReportJob> findByStatusIn(Collection<ReportJobStatus> statuses);
+
+    List<ReportJob> findByStatusAndExpiresAtBefore(ReportJobStatus status, LocalDateTime cutoff);
+}
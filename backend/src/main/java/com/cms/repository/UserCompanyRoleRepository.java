@@ -1,5 +1,6 @@
 package com.cms.repository;
 
+import com.cms.model.Role;
 import com.cms.model.UserCompanyRole;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
@@ -11,4 +12,6 @@ public interface UserCompanyRoleRepository extends JpaRepository<UserCompanyRole
     List<UserCompanyRole> findByUser_Username(String username);
 
     List<UserCompanyRole> findByCompany_Id(Long companyId);
+
+    boolean existsByUser_IdAndRole(Long userId, Role role);
 }
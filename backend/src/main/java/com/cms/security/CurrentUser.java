@@ -0,0 +1,20 @@
+package com.cms.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/** The authenticated user of the current thread. */
+public final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    /** The user's id, or {@code null} outside an authenticated request (e.g. schedulers). */
+    public static Long getId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal) {
+            return ((UserPrincipal) authentication.getPrincipal()).getId();
+        }
+        return null;
+    }
+}
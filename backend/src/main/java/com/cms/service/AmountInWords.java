@@ -0,0 +1,194 @@
+package com.cms.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Map;
+
+/**
+ * Spells out cheque amounts, e.g. "One Lakh Twenty Thousand Taka and Fifty Paisa Only".
+ * <p>
+ * Words are appended to a caller-supplied {@link StringBuilder} from constant
+ * tables, without building intermediate strings, so a renderer can reuse one
+ * builder for a whole batch. Only a crore count of a crore or more recurses, at
+ * most twice for any long. Stateless and thread-safe.
+ */
+public final class AmountInWords {
+
+    public enum Grouping {
+        INTERNATIONAL, // Thousand, Million, Billion
+        INDIAN // Thousand, Lakh, Crore (also used in Bangladesh, Pakistan, Nepal)
+    }
+
+    /** Currency words and the grouping customary for the currency. */
+    public static final class CurrencyWords {
+        final String major;
+        final String majorPlural;
+        final String minor;
+        final String minorPlural;
+        final Grouping grouping;
+
+        CurrencyWords(String major, String majorPlural, String minor, String minorPlural, Grouping grouping) {
+            this.major = major;
+            this.majorPlural = majorPlural;
+            this.minor = minor;
+            this.minorPlural = minorPlural;
+            this.grouping = grouping;
+        }
+
+        public Grouping getGrouping() {
+            return grouping;
+        }
+    }
+
+    // Cheques printed before companies had a currency said "... Million Taka Only"
+    private static final CurrencyWords LEGACY = new CurrencyWords("Taka", "Taka", "Paisa", "Paisa",
+            Grouping.INTERNATIONAL);
+
+    private static final Map<String, CurrencyWords> CURRENCIES = Map.ofEntries(
+            Map.entry("BDT", new CurrencyWords("Taka", "Taka", "Paisa", "Paisa", Grouping.INDIAN)),
+            Map.entry("INR", new CurrencyWords("Rupee", "Rupees", "Paisa", "Paise", Grouping.INDIAN)),
+            Map.entry("PKR", new CurrencyWords("Rupee", "Rupees", "Paisa", "Paisa", Grouping.INDIAN)),
+            Map.entry("NPR", new CurrencyWords("Rupee", "Rupees", "Paisa", "Paisa", Grouping.INDIAN)),
+            Map.entry("LKR", new CurrencyWords("Rupee", "Rupees", "Cent", "Cents", Grouping.INTERNATIONAL)),
+            Map.entry("USD", new CurrencyWords("Dollar", "Dollars", "Cent", "Cents", Grouping.INTERNATIONAL)),
+            Map.entry("EUR", new CurrencyWords("Euro", "Euros", "Cent", "Cents", Grouping.INTERNATIONAL)),
+            Map.entry("GBP", new CurrencyWords("Pound", "Pounds", "Penny", "Pence", Grouping.INTERNATIONAL)),
+            Map.entry("AED", new CurrencyWords("Dirham", "Dirhams", "Fil", "Fils", Grouping.INTERNATIONAL)),
+            Map.entry("SAR", new CurrencyWords("Riyal", "Riyals", "Halala", "Halalas", Grouping.INTERNATIONAL)));
+
+    private static final String[] UNITS = {
+            "", "One", "Two", "Three", "Four", "Five", "Six", "Seven", "Eight", "Nine", "Ten",
+            "Eleven", "Twelve", "Thirteen", "Fourteen", "Fifteen", "Sixteen", "Seventeen", "Eighteen", "Nineteen"
+    };
+
+    private static final String[] TENS = {
+            "", "", "Twenty", "Thirty", "Forty", "Fifty", "Sixty", "Seventy", "Eighty", "Ninety"
+    };
+
+    private static final long[] INTERNATIONAL_SCALES = {
+            1_000_000_000_000_000_000L, 1_000_000_000_000_000L, 1_000_000_000_000L, 1_000_000_000L, 1_000_000L,
+            1_000L
+    };
+
+    private static final String[] INTERNATIONAL_NAMES = {
+            "Quintillion", "Quadrillion", "Trillion", "Billion", "Million", "Thousand"
+    };
+
+    private static final long CRORE = 10_000_000L;
+    private static final long LAKH = 100_000L;
+
+    private AmountInWords() {
+    }
+
+    /**
+     * Words for an ISO 4217 code. Unknown codes use the code itself with
+     * international grouping; {@code null} keeps the old "Taka" wording.
+     */
+    public static CurrencyWords currency(String currencyCode) {
+        if (currencyCode == null || currencyCode.isBlank()) {
+            return LEGACY;
+        }
+        String code = currencyCode.trim().toUpperCase();
+        CurrencyWords words = CURRENCIES.get(code);
+        return words != null ? words : new CurrencyWords(code, code, "Cent", "Cents", Grouping.INTERNATIONAL);
+    }
+
+    public static String toWords(BigDecimal amount, String currencyCode) {
+        StringBuilder out = new StringBuilder(96);
+        CurrencyWords currency = currency(currencyCode);
+        append(amount, currency, currency.grouping, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the amount in words to {@code out}. The amount is rounded half-up to
+     * two decimals; the fraction is spelled in the minor unit. {@code null} counts as zero.
+     */
+    public static void append(BigDecimal amount, CurrencyWords currency, Grouping grouping, StringBuilder out) {
+        long minorUnits;
+        try {
+            minorUnits = amount == null ? 0
+                    : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new RuntimeException("Amount too large to write in words: " + amount);
+        }
+        int start = out.length();
+        if (minorUnits < 0) {
+            out.append("Minus");
+            minorUnits = -minorUnits; // Cannot overflow: the scale-2 value fits well inside a long
+        }
+        long major = minorUnits / 100;
+        int minor = (int) (minorUnits % 100);
+
+        if (major == 0) {
+            word(out, start, "Zero");
+        } else if (grouping == Grouping.INDIAN) {
+            appendIndian(major, out, start);
+        } else {
+            appendInternational(major, out, start);
+        }
+        word(out, start, major == 1 ? currency.major : currency.majorPlural);
+
+        if (minor > 0) {
+            word(out, start, "and");
+            appendBelowThousand(minor, out, start);
+            word(out, start, minor == 1 ? currency.minor : currency.minorPlural);
+        }
+        word(out, start, "Only");
+    }
+
+    private static void appendInternational(long n, StringBuilder out, int start) {
+        for (int i = 0; i < INTERNATIONAL_SCALES.length; i++) {
+            long count = n / INTERNATIONAL_SCALES[i];
+            if (count > 0) {
+                appendBelowThousand((int) count, out, start);
+                word(out, start, INTERNATIONAL_NAMES[i]);
+                n %= INTERNATIONAL_SCALES[i];
+            }
+        }
+        appendBelowThousand((int) n, out, start);
+    }
+
+    // Above 99 crore the crore count is itself spelled in lakh/crore ("One Lakh Crore")
+    private static void appendIndian(long n, StringBuilder out, int start) {
+        long crores = n / CRORE;
+        if (crores > 0) {
+            appendIndian(crores, out, start);
+            word(out, start, "Crore");
+            n %= CRORE;
+        }
+        int lakhs = (int) (n / LAKH);
+        if (lakhs > 0) {
+            appendBelowThousand(lakhs, out, start);
+            word(out, start, "Lakh");
+        }
+        int thousands = (int) (n / 1000 % 100);
+        if (thousands > 0) {
+            appendBelowThousand(thousands, out, start);
+            word(out, start, "Thousand");
+        }
+        appendBelowThousand((int) (n % 1000), out, start);
+    }
+
+    private static void appendBelowThousand(int n, StringBuilder out, int start) {
+        if (n >= 100) {
+            word(out, start, UNITS[n / 100]);
+            word(out, start, "Hundred");
+            n %= 100;
+        }
+        if (n >= 20) {
+            word(out, start, TENS[n / 10]);
+            n %= 10;
+        }
+        if (n > 0) {
+            word(out, start, UNITS[n]);
+        }
+    }
+
+    private static void word(StringBuilder out, int start, String word) {
+        if (out.length() > start) {
+            out.append(' ');
+        }
+        out.append(word);
+    }
+}
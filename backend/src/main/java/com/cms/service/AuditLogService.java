@@ -2,18 +2,20 @@ package com.cms.service;
 
 import com.cms.dto.AuditLogDTO;
 import com.cms.model.AuditLog;
-import com.cms.model.User;
+import com.cms.repository.AuditLogBulkWriter;
 import com.cms.repository.AuditLogRepository;
-import com.cms.repository.UserRepository;
 import com.cms.security.UserPrincipal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.OutputStream;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class AuditLogService {
@@ -22,7 +24,7 @@ public class AuditLogService {
     private AuditLogRepository auditLogRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private AuditLogBulkWriter auditLogBulkWriter;
 
     public void logAction(String entityType, Long entityId, String action, String oldValue, String newValue) {
         Long userId = getCurrentUserId();
@@ -38,8 +40,47 @@ public class AuditLogService {
         auditLogRepository.save(log);
     }
 
+    /**
+     * Same as {@link #logAction} for many entities at once, written in one batch.
+     */
+    public void logActions(List<AuditLog> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+        Long userId = getCurrentUserId();
+        LocalDateTime now = LocalDateTime.now();
+        for (AuditLog log : logs) {
+            log.setUserId(userId);
+            log.setTimestamp(now);
+        }
+        auditLogBulkWriter.insertAll(logs);
+    }
+
     public List<AuditLogDTO> getAllAuditLogs() {
-        return auditLogRepository.findAll().stream().map(this::convertToDTO).collect(Collectors.toList());
+        return auditLogRepository.findAllAsDTO();
+    }
+
+    /** Streams the whole audit trail as CSV, oldest first, in constant memory. */
+    @Transactional(readOnly = true)
+    public void exportToCsv(OutputStream out, boolean gzip) {
+        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+        try (CsvWriter csv = new CsvWriter(out, gzip);
+                Stream<AuditLogDTO> logs = auditLogRepository.streamAllForExport()) {
+            csv.field("ID").field("Timestamp").field("User").field("Entity Type").field("Entity ID")
+                    .field("Action").field("Old Value").field("New Value").endRecord();
+            csv.flush();
+
+            logs.forEach(log -> csv
+                    .field(log.getId())
+                    .field(log.getTimestamp() != null ? log.getTimestamp().format(formatter) : null)
+                    .field(log.getUsername())
+                    .field(log.getEntityType())
+                    .field(log.getEntityId())
+                    .field(log.getAction())
+                    .field(log.getOldValue())
+                    .field(log.getNewValue())
+                    .endRecord());
+        }
     }
 
     private Long getCurrentUserId() {
@@ -49,24 +90,4 @@ public class AuditLogService {
         }
         return null;
     }
-
-    private String getUsernameById(Long userId) {
-        if (userId == null)
-            return "System";
-        return userRepository.findById(userId).map(User::getUsername).orElse("Unknown");
-    }
-
-    private AuditLogDTO convertToDTO(AuditLog log) {
-        return AuditLogDTO.builder()
-                .id(log.getId())
-                .entityType(log.getEntityType())
-                .entityId(log.getEntityId())
-                .action(log.getAction())
-                .userId(log.getUserId())
-                .username(getUsernameById(log.getUserId()))
-                .oldValue(log.getOldValue())
-                .newValue(log.getNewValue())
-                .timestamp(log.getTimestamp())
-                .build();
-    }
 }
@@ -32,6 +32,9 @@ public class BankAccountService {
     @Autowired
     private ChequeTemplateRepository chequeTemplateRepository;
 
+    @Autowired
+    private ReportDataVersion reportDataVersion;
+
     public List<BankAccountDTO> getAccountsByCompany(Long companyId) {
         return bankAccountRepository.findByCompanyId(companyId).stream()
                 .map(this::convertToDTO)
@@ -93,6 +96,8 @@ public class BankAccountService {
         }
 
         existingAccount = bankAccountRepository.save(existingAccount);
+        // Account numbers and bank names (through the branch) are in reports
+        reportDataVersion.companyDataChanged(existingAccount.getCompany().getId());
         return convertToDTO(existingAccount);
     }
 
@@ -22,6 +22,9 @@ public class BankService {
     @Autowired
     private ChequeTemplateRepository chequeTemplateRepository;
 
+    @Autowired
+    private ReportDataVersion reportDataVersion;
+
     public List<BankDTO> getAllBanks() {
         return bankRepository.findAll().stream()
                 .map(this::convertToDTO)
@@ -62,6 +65,7 @@ public class BankService {
         }
 
         existingBank = bankRepository.save(existingBank);
+        reportDataVersion.bankDataChanged(); // Bank names are in every company's reports
         return convertToDTO(existingBank);
     }
 
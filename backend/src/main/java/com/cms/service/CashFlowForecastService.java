@@ -0,0 +1,201 @@
+package com.cms.service;
+
+import com.cms.dto.AccountForecastDTO;
+import com.cms.dto.CashFlowForecastDTO;
+import com.cms.dto.ForecastBucketDTO;
+import com.cms.model.BankAccount;
+import com.cms.model.ChequeDirection;
+import com.cms.model.ForecastGranularity;
+import com.cms.repository.BankAccountRepository;
+import com.cms.repository.ChequeDailyRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * PDC maturity ladder per bank account: cheques still to be paid or collected,
+ * bucketed by day, week or month, with the balance projected forward from
+ * {@link BankAccount#getBalance()}. Reads the per-day groups of the cheque rollup,
+ * which the database keeps current on every write, so a forecast costs one query
+ * over at most (accounts x days x statuses) groups whatever the horizon or the
+ * number of cheques. Cheques past their date but still open are expected today.
+ */
+@Service
+public class CashFlowForecastService {
+
+    @Autowired
+    private ChequeDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
+    @Value("${app.forecast.max-horizon-days:730}")
+    private int maxHorizonDays;
+
+    @Transactional(readOnly = true)
+    public CashFlowForecastDTO getForecast(Long companyId, int horizonDays, ForecastGranularity granularity) {
+        if (horizonDays < 1 || horizonDays > maxHorizonDays) {
+            throw new RuntimeException("Forecast horizon must be between 1 and " + maxHorizonDays + " days.");
+        }
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(horizonDays - 1);
+
+        // Expected flows per day for each account; the null key holds inflows without a deposit account
+        Map<Long, NavigableMap<LocalDate, DayFlow>> flowsByAccount = new HashMap<>();
+        for (Object[] row : rollupRepository.findExpectedFlows(to, companyId)) {
+            LocalDate date = (LocalDate) row[2];
+            flowsByAccount.computeIfAbsent((Long) row[0], id -> new TreeMap<>())
+                    .computeIfAbsent(date.isBefore(from) ? from : date, day -> new DayFlow())
+                    .add((ChequeDirection) row[1], (Long) row[3], (BigDecimal) row[4]);
+        }
+
+        List<BankAccount> accounts = companyId != null ? bankAccountRepository.findByCompanyId(companyId)
+                : bankAccountRepository.findAllWithDetails();
+        List<AccountForecastDTO> forecasts = new ArrayList<>();
+        for (BankAccount account : accounts) {
+            NavigableMap<LocalDate, DayFlow> flows = flowsByAccount.get(account.getId());
+            if (!account.isActive() && flows == null) {
+                continue;
+            }
+            Ladder ladder = new Ladder(from, to, granularity, account.getBalance());
+            ladder.walk(flows != null ? flows : Collections.emptyNavigableMap());
+            forecasts.add(AccountForecastDTO.builder()
+                    .accountId(account.getId())
+                    .accountNumber(account.getAccountNumber())
+                    .bankName(account.getBranch().getBank().getName())
+                    .companyId(account.getCompany().getId())
+                    .companyName(account.getCompany().getName())
+                    .currency(account.getCurrency())
+                    .openingBalance(account.getBalance())
+                    .closingBalance(ladder.balance)
+                    .lowestBalance(ladder.lowestBalance)
+                    .lowestBalanceDate(ladder.lowestBalanceDate)
+                    .negativeDays(ladder.negativeDays)
+                    .buckets(ladder.buckets)
+                    .build());
+        }
+
+        Ladder unassigned = new Ladder(from, to, granularity, null);
+        unassigned.walk(flowsByAccount.getOrDefault(null, Collections.emptyNavigableMap()));
+
+        return CashFlowForecastDTO.builder()
+                .fromDate(from)
+                .toDate(to)
+                .granularity(granularity)
+                .accounts(forecasts)
+                .unassignedInflows(unassigned.buckets)
+                .build();
+    }
+
+    private static final class DayFlow {
+        private long inflowCount;
+        private BigDecimal inflowAmount = BigDecimal.ZERO;
+        private long outflowCount;
+        private BigDecimal outflowAmount = BigDecimal.ZERO;
+
+        private void add(ChequeDirection direction, long count, BigDecimal amount) {
+            if (direction == ChequeDirection.INCOMING) {
+                inflowCount += count;
+                inflowAmount = inflowAmount.add(amount);
+            } else {
+                outflowCount += count;
+                outflowAmount = outflowAmount.add(amount);
+            }
+        }
+    }
+
+    /**
+     * Walks the horizon a day at a time, applying each day's flows to the running
+     * balance and closing a bucket at every week or month boundary. Without an
+     * opening balance only the flows are bucketed.
+     */
+    private static final class Ladder {
+        private final LocalDate from;
+        private final LocalDate to;
+        private final ForecastGranularity granularity;
+        private BigDecimal balance;
+        private BigDecimal lowestBalance;
+        private LocalDate lowestBalanceDate;
+        private final List<LocalDate> negativeDays = new ArrayList<>();
+        private final List<ForecastBucketDTO> buckets = new ArrayList<>();
+
+        private Ladder(LocalDate from, LocalDate to, ForecastGranularity granularity, BigDecimal openingBalance) {
+            this.from = from;
+            this.to = to;
+            this.granularity = granularity;
+            this.balance = openingBalance;
+        }
+
+        private void walk(NavigableMap<LocalDate, DayFlow> flows) {
+            ForecastBucketDTO bucket = null;
+            for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+                if (bucket == null || day.isAfter(bucket.getEndDate())) {
+                    bucket = newBucket(day);
+                    buckets.add(bucket);
+                }
+                DayFlow flow = flows.get(day);
+                if (flow != null) {
+                    bucket.setInflowCount(bucket.getInflowCount() + flow.inflowCount);
+                    bucket.setInflowAmount(bucket.getInflowAmount().add(flow.inflowAmount));
+                    bucket.setOutflowCount(bucket.getOutflowCount() + flow.outflowCount);
+                    bucket.setOutflowAmount(bucket.getOutflowAmount().add(flow.outflowAmount));
+                    BigDecimal net = flow.inflowAmount.subtract(flow.outflowAmount);
+                    bucket.setNetFlow(bucket.getNetFlow().add(net));
+                    if (balance != null) {
+                        balance = balance.add(net);
+                    }
+                }
+                if (balance == null) {
+                    continue;
+                }
+                bucket.setClosingBalance(balance);
+                if (bucket.getLowestBalance() == null || balance.compareTo(bucket.getLowestBalance()) < 0) {
+                    bucket.setLowestBalance(balance);
+                }
+                if (lowestBalance == null || balance.compareTo(lowestBalance) < 0) {
+                    lowestBalance = balance;
+                    lowestBalanceDate = day;
+                }
+                if (balance.signum() < 0) {
+                    negativeDays.add(day);
+                    bucket.setNegative(true);
+                }
+            }
+        }
+
+        private ForecastBucketDTO newBucket(LocalDate day) {
+            LocalDate end;
+            switch (granularity) {
+                case WEEK:
+                    end = day.with(TemporalAdjusters.nextOrSame(DayOfWeek.SUNDAY));
+                    break;
+                case MONTH:
+                    end = day.with(TemporalAdjusters.lastDayOfMonth());
+                    break;
+                default:
+                    end = day;
+            }
+            // The first bucket starts today, the last one ends with the horizon
+            return ForecastBucketDTO.builder()
+                    .startDate(day)
+                    .endDate(end.isAfter(to) ? to : end)
+                    .inflowAmount(BigDecimal.ZERO)
+                    .outflowAmount(BigDecimal.ZERO)
+                    .netFlow(BigDecimal.ZERO)
+                    .build();
+        }
+    }
+}
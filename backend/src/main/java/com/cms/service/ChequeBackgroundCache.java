@@ -0,0 +1,99 @@
+package com.cms.service;
+
+import com.cms.model.ChequeTemplate;
+import com.lowagie.text.Image;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Template background image files by template ID, least recently used evicted
+ * first. Holds the bytes, checked once to be a readable image: an OpenPDF
+ * {@link Image} keeps per-document state once added to a writer, so each document
+ * creates its own from these bytes, embeds it once and references it from every page.
+ */
+@Component
+public class ChequeBackgroundCache {
+
+    @Value("${app.upload.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.printing.background-cache-size:16}")
+    private int maxEntries;
+
+    private final Map<Long, Entry> images = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /** The template's background image file, or {@code null} if it has none. */
+    public byte[] get(ChequeTemplate template) {
+        String path = template.getBackgroundPath();
+        if (path == null || path.isBlank()) {
+            return null;
+        }
+        long version = ChequeLayout.versionOf(template);
+        synchronized (images) {
+            Entry cached = images.get(template.getId());
+            if (cached != null && cached.version == version && cached.path.equals(path)) {
+                return cached.image;
+            }
+        }
+
+        // Read outside the lock; two threads racing on a cold template both read once
+        byte[] image = load(path);
+        synchronized (images) {
+            images.put(template.getId(), new Entry(path, version, image));
+        }
+        return image;
+    }
+
+    public void invalidate(Long templateId) {
+        synchronized (images) {
+            images.remove(templateId);
+        }
+    }
+
+    /** Background paths are stored relative to the upload directory and may not leave it. */
+    public Path resolve(String path) {
+        Path root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path file = root.resolve(path).normalize();
+        if (!file.startsWith(root)) {
+            throw new RuntimeException("Invalid template background path: " + path);
+        }
+        return file;
+    }
+
+    private byte[] load(String path) {
+        Path file = resolve(path);
+        if (!Files.exists(file)) {
+            throw new RuntimeException("Template background not found: " + path);
+        }
+        try {
+            byte[] image = Files.readAllBytes(file);
+            Image.getInstance(image); // Fails here rather than in every render
+            return image;
+        } catch (Exception e) {
+            throw new RuntimeException("Could not read template background " + path, e);
+        }
+    }
+
+    private static final class Entry {
+        private final String path;
+        private final long version;
+        private final byte[] image;
+
+        private Entry(String path, long version, byte[] image) {
+            this.path = path;
+            this.version = version;
+            this.image = image;
+        }
+    }
+}
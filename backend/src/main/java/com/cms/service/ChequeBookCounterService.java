@@ -0,0 +1,160 @@
+package com.cms.service;
+
+import com.cms.model.Cheque;
+import com.cms.model.ChequeBook;
+import com.cms.model.ChequeBookStatusCount;
+import com.cms.model.ChequeStatus;
+import com.cms.repository.ChequeBookRepository;
+import com.cms.repository.ChequeBookStatusCountRepository;
+import com.cms.repository.ChequeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-book leaf counts by {@link ChequeStatus}, kept up to date in the same
+ * transaction as every status change so book lists never scan the cheques table.
+ * Writes join the caller's transaction, or open their own when called without one
+ * (e.g. from the seed data).
+ */
+@Service
+public class ChequeBookCounterService {
+
+    @Autowired
+    private ChequeBookStatusCountRepository statusCountRepository;
+
+    @Autowired
+    private ChequeBookRepository chequeBookRepository;
+
+    @Autowired
+    private ChequeRepository chequeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** A new book starts with every leaf UNUSED. */
+    @Transactional
+    public void initialize(ChequeBook book) {
+        statusCountRepository.addToCount(book.getId(), ChequeStatus.UNUSED.name(),
+                book.getEndNumber() - book.getStartNumber() + 1);
+    }
+
+    @Transactional
+    public void recordTransition(Long bookId, ChequeStatus from, ChequeStatus to) {
+        recordTransition(bookId, from, to, 1);
+    }
+
+    @Transactional
+    public void recordTransition(Long bookId, ChequeStatus from, ChequeStatus to, long leaves) {
+        if (bookId == null || from == to || leaves == 0) {
+            return;
+        }
+        if (from != null) {
+            statusCountRepository.addToCount(bookId, from.name(), -leaves);
+        }
+        if (to != null) {
+            statusCountRepository.addToCount(bookId, to.name(), leaves);
+        }
+    }
+
+    /** Records the same transition for a set of cheques, one update per book and status. */
+    @Transactional
+    public void recordTransitions(Collection<Cheque> cheques, ChequeStatus from, ChequeStatus to) {
+        Map<Long, Long> perBook = new HashMap<>();
+        for (Cheque cheque : cheques) {
+            perBook.merge(cheque.getChequeBook().getId(), 1L, Long::sum);
+        }
+        perBook.forEach((bookId, leaves) -> recordTransition(bookId, from, to, leaves));
+    }
+
+    public Map<ChequeStatus, Long> getCounts(Long bookId) {
+        return toMap(statusCountRepository.findByChequeBookId(bookId));
+    }
+
+    public Map<Long, Map<ChequeStatus, Long>> getCounts(Collection<Long> bookIds) {
+        Map<Long, Map<ChequeStatus, Long>> counts = new HashMap<>();
+        for (ChequeBookStatusCount count : statusCountRepository.findByChequeBookIdIn(bookIds)) {
+            counts.computeIfAbsent(count.getChequeBookId(), id -> new EnumMap<>(ChequeStatus.class))
+                    .put(count.getStatus(), count.getLeafCount());
+        }
+        return counts;
+    }
+
+    /**
+     * Recomputes a book's counters from the cheques table. Leaves without a row
+     * (virtual books) are counted as UNUSED.
+     */
+    @Transactional
+    public void rebuild(Long bookId) {
+        ChequeBook book = chequeBookRepository.findByIdForUpdate(bookId)
+                .orElseThrow(() -> new RuntimeException("Cheque Book not found"));
+
+        Map<ChequeStatus, Long> counts = new EnumMap<>(ChequeStatus.class);
+        long rows = 0;
+        for (Object[] row : chequeRepository.countByStatusForBook(bookId)) {
+            counts.put((ChequeStatus) row[0], (Long) row[1]);
+            rows += (Long) row[1];
+        }
+        long total = book.getEndNumber() - book.getStartNumber() + 1;
+        counts.merge(ChequeStatus.UNUSED, total - rows, Long::sum);
+
+        statusCountRepository.deleteByChequeBookId(bookId);
+        statusCountRepository.flush();
+        counts.forEach((status, count) -> statusCountRepository.addToCount(bookId, status.name(), count));
+    }
+
+    /**
+     * Nightly reconciliation in case counters drifted (e.g. rows edited outside the
+     * service layer). Each book is rebuilt in its own transaction, so a book is
+     * locked only while its own counters are recomputed.
+     */
+    @Scheduled(cron = "0 30 0 * * ?")
+    public void reconcileAll() {
+        for (ChequeBook book : chequeBookRepository.findAll()) {
+            rebuildSeparately(book.getId());
+        }
+        System.out.println("Cheque book counters reconciled.");
+    }
+
+    /** Backfills books created before counters existed. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeMissing() {
+        List<Long> missing = statusCountRepository.findBookIdsWithoutCounts();
+        for (Long bookId : missing) {
+            rebuildSeparately(bookId);
+        }
+        if (!missing.isEmpty()) {
+            System.out.println("Initialized counters for " + missing.size() + " cheque book(s).");
+        }
+    }
+
+    private void rebuildSeparately(Long bookId) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            transaction.executeWithoutResult(status -> rebuild(bookId));
+        } catch (Exception e) {
+            System.err.println("Could not rebuild counters of cheque book " + bookId + ": " + e.getMessage());
+        }
+    }
+
+    private Map<ChequeStatus, Long> toMap(List<ChequeBookStatusCount> counts) {
+        Map<ChequeStatus, Long> map = new EnumMap<>(ChequeStatus.class);
+        for (ChequeBookStatusCount count : counts) {
+            map.put(count.getStatus(), count.getLeafCount());
+        }
+        return map;
+    }
+}
@@ -0,0 +1,72 @@
+package com.cms.service;
+
+import com.cms.model.ChequeBook;
+import com.cms.repository.ChequeBookRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory index of cheque number ranges per bank account, used to reject
+ * overlapping books in O(log n) instead of a BETWEEN scan per insert.
+ * <p>
+ * The books of one account never overlap, so a map of start number to end
+ * number ordered by start is enough: the only candidate for an overlap with
+ * [start, end] is the book with the greatest start not after {@code end}.
+ * The cheque_books_no_overlap exclusion constraint in the database remains the
+ * authority for concurrent inserts and other application instances.
+ */
+@Component
+public class ChequeBookRangeIndex {
+
+    @Autowired
+    private ChequeBookRepository chequeBookRepository;
+
+    private final Map<Long, NavigableMap<Long, Long>> rangesByAccount = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        for (ChequeBook book : chequeBookRepository.findAll()) {
+            add(book.getAccount().getId(), book.getStartNumber(), book.getEndNumber());
+        }
+        System.out.println("Cheque book range index warmed for " + rangesByAccount.size() + " account(s).");
+    }
+
+    public boolean overlaps(Long accountId, long startNumber, long endNumber) {
+        Map.Entry<Long, Long> candidate = ranges(accountId).floorEntry(endNumber);
+        return candidate != null && candidate.getValue() >= startNumber;
+    }
+
+    /** Adds the range once the surrounding transaction commits. */
+    public void addAfterCommit(Long accountId, long startNumber, long endNumber) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(accountId, startNumber, endNumber);
+            }
+        });
+    }
+
+    private void add(Long accountId, long startNumber, long endNumber) {
+        ranges(accountId).put(startNumber, endNumber);
+    }
+
+    // Accounts not seen yet (e.g. before warm-up) are loaded on first use
+    private NavigableMap<Long, Long> ranges(Long accountId) {
+        return rangesByAccount.computeIfAbsent(accountId, id -> {
+            NavigableMap<Long, Long> ranges = new ConcurrentSkipListMap<>();
+            for (ChequeBook book : chequeBookRepository.findByAccountId(id)) {
+                ranges.put(book.getStartNumber(), book.getEndNumber());
+            }
+            return ranges;
+        });
+    }
+}
@@ -1,33 +1,65 @@
 package com.cms.service;
 
+import com.cms.dto.BulkStatusResultDTO;
+import com.cms.dto.BulkStatusUpdateDTO;
 import com.cms.dto.ChequeBookDTO;
 import com.cms.dto.ChequeDTO;
+import com.cms.dto.ChequeLeafPageDTO;
+import com.cms.model.AuditLog;
 import com.cms.model.BankAccount;
 import com.cms.model.Cheque;
 import com.cms.model.ChequeBook;
 import com.cms.model.ChequeStatus;
 import com.cms.model.ChequeWorkflowStatus;
+import com.cms.model.LeafMode;
 import com.cms.repository.BankAccountRepository;
 import com.cms.repository.ChequeBookRepository;
+import com.cms.repository.ChequeLeafBulkWriter;
 import com.cms.repository.ChequeRepository;
 import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 public class ChequeBookService {
 
+    private static final int MAX_LEAF_PAGE_SIZE = 500;
+
+    private static final int BULK_CHUNK_SIZE = 1000;
+
     @Autowired
     private ChequeBookRepository chequeBookRepository;
 
     @Autowired
     private ChequeRepository chequeRepository;
 
+    @Autowired
+    private ChequeLeafBulkWriter chequeLeafBulkWriter;
+
+    @Autowired
+    private ChequeLeafAllocator chequeLeafAllocator;
+
+    @Autowired
+    private ChequeBookCounterService chequeBookCounterService;
+
+    @Autowired
+    private ChequeBookRangeIndex chequeBookRangeIndex;
+
     @Autowired
     private BankAccountRepository bankAccountRepository;
 
@@ -37,22 +69,105 @@ public class ChequeBookService {
     @Autowired
     private AuditLogService auditLogService;
 
+    @Autowired
+    private ReportDataVersion reportDataVersion;
+
     public List<ChequeBookDTO> getChequeBooksByAccount(Long accountId) {
-        return chequeBookRepository.findByAccountId(accountId).stream()
-                .map(this::convertToDTO)
+        List<ChequeBook> books = chequeBookRepository.findByAccountId(accountId);
+        Map<Long, Map<ChequeStatus, Long>> counts = chequeBookCounterService
+                .getCounts(books.stream().map(ChequeBook::getId).collect(Collectors.toList()));
+        return books.stream()
+                .map(book -> convertToDTO(book, counts.getOrDefault(book.getId(), Map.of())))
                 .collect(Collectors.toList());
     }
 
     public ChequeBookDTO getChequeBookById(Long id) {
         ChequeBook chequeBook = chequeBookRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Cheque Book not found"));
-        return convertToDTO(chequeBook);
+        return convertToDTO(chequeBook, chequeBookCounterService.getCounts(id));
     }
 
-    public List<ChequeDTO> getChequesByBook(Long bookId) {
-        return chequeRepository.findByChequeBookIdOrderByChequeNumberAsc(bookId).stream()
-                .map(this::convertChequeToDTO)
-                .collect(Collectors.toList());
+    @Transactional
+    public ChequeBookDTO reconcileCounters(Long id) {
+        chequeBookCounterService.rebuild(id);
+        return getChequeBookById(id);
+    }
+
+    /**
+     * Keyset page of a book's leaves in cheque number order, starting after
+     * {@code after}. With {@code countOnly} only the matching total is returned,
+     * read from the status counters.
+     */
+    public ChequeLeafPageDTO getChequesByBook(Long bookId, Long after, int limit, ChequeStatus status,
+            boolean countOnly) {
+        ChequeBook book = chequeBookRepository.findById(bookId)
+                .orElseThrow(() -> new RuntimeException("Cheque Book not found"));
+
+        ChequeLeafPageDTO page = new ChequeLeafPageDTO();
+        page.setTotalMatching(status == null ? book.getEndNumber() - book.getStartNumber() + 1
+                : chequeBookCounterService.getCounts(bookId).getOrDefault(status, 0L));
+        if (countOnly) {
+            page.setItems(List.of());
+            return page;
+        }
+
+        int size = Math.max(1, Math.min(limit, MAX_LEAF_PAGE_SIZE));
+        long from = after != null ? Math.max(after + 1, book.getStartNumber()) : book.getStartNumber();
+        List<ChequeDTO> items;
+        if (from > book.getEndNumber()) {
+            items = List.of();
+        } else if (status == null) {
+            items = leafRange(book, from, Math.min(book.getEndNumber(), from + size - 1));
+        } else if (status == ChequeStatus.UNUSED && book.isVirtual()) {
+            items = unusedLeaves(book, from, size);
+        } else {
+            items = chequeRepository.findLeafPageByStatus(bookId, status, from, PageRequest.of(0, size));
+        }
+
+        page.setItems(items);
+        if (items.size() == size) {
+            long last = items.get(items.size() - 1).getChequeNumber();
+            page.setNextAfter(last < book.getEndNumber() ? last : null);
+        }
+        return page;
+    }
+
+    // Leaf numbers are dense, so a page is a fixed number range; virtual gaps are unused leaves
+    private List<ChequeDTO> leafRange(ChequeBook book, long from, long to) {
+        List<ChequeDTO> rows = chequeRepository.findLeafRange(book.getId(), from, to);
+        if (!book.isVirtual()) {
+            return rows;
+        }
+        List<ChequeDTO> leaves = new ArrayList<>((int) (to - from + 1));
+        int r = 0;
+        for (long num = from; num <= to; num++) {
+            if (r < rows.size() && rows.get(r).getChequeNumber() == num) {
+                leaves.add(rows.get(r++));
+            } else {
+                leaves.add(unusedLeafDTO(book, num));
+            }
+        }
+        return leaves;
+    }
+
+    // Unused leaves of a virtual book: clear bits in the bitmap merged with rows handed back as UNUSED
+    private List<ChequeDTO> unusedLeaves(ChequeBook book, long from, int size) {
+        List<ChequeDTO> rows = chequeRepository.findLeafPageByStatus(book.getId(), ChequeStatus.UNUSED, from,
+                PageRequest.of(0, size));
+        BitSet bits = book.getLeafBits();
+        List<ChequeDTO> leaves = new ArrayList<>(size);
+        int r = 0;
+        long virtual = book.nextUnmaterializedLeaf(from);
+        while (leaves.size() < size && (r < rows.size() || virtual != -1)) {
+            if (virtual != -1 && (r >= rows.size() || virtual < rows.get(r).getChequeNumber())) {
+                leaves.add(unusedLeafDTO(book, virtual));
+                int next = bits.nextClearBit((int) (virtual - book.getStartNumber()) + 1);
+                virtual = book.getStartNumber() + next <= book.getEndNumber() ? book.getStartNumber() + next : -1;
+            } else {
+                leaves.add(rows.get(r++));
+            }
+        }
+        return leaves;
     }
 
     @Transactional
@@ -62,7 +177,7 @@ public class ChequeBookService {
                 .orElseThrow(() -> new RuntimeException("Bank Account not found"));
 
         // 2. Validate Overlap
-        boolean overlap = chequeBookRepository.existsOverlappingChequeBook(dto.getAccountId(), dto.getStartNumber(),
+        boolean overlap = chequeBookRangeIndex.overlaps(dto.getAccountId(), dto.getStartNumber(),
                 dto.getEndNumber());
         if (overlap) {
             throw new RuntimeException("Cheque number range overlaps with an existing cheque book for this account.");
@@ -81,21 +196,76 @@ public class ChequeBookService {
         book.setCurrentNumber(dto.getStartNumber());
         book.setIssuedDate(dto.getIssuedDate());
         book.setActive(true);
+        book.setLeafMode(dto.getLeafMode() != null ? dto.getLeafMode() : LeafMode.VIRTUAL);
 
-        book = chequeBookRepository.save(book);
+        try {
+            book = chequeBookRepository.saveAndFlush(book);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent insert; rejected by cheque_books_no_overlap
+            throw new RuntimeException("Cheque number range overlaps with an existing cheque book for this account.");
+        }
+        chequeBookRangeIndex.addAfterCommit(account.getId(), book.getStartNumber(), book.getEndNumber());
+        chequeBookCounterService.initialize(book);
 
-        // 4. Pre-generate Cheques
-        List<Cheque> cheques = new ArrayList<>();
-        for (long num = book.getStartNumber(); num <= book.getEndNumber(); num++) {
-            Cheque cheque = new Cheque();
-            cheque.setChequeBook(book);
-            cheque.setChequeNumber(num);
-            cheque.setStatus(ChequeStatus.UNUSED);
-            cheques.add(cheque);
+        // 4. Pre-generate Cheques (virtual books create rows lazily, see ChequeLeafAllocator)
+        if (!book.isVirtual()) {
+            chequeLeafBulkWriter.insertUnusedLeaves(book.getId(), book.getStartNumber(), book.getEndNumber());
+            reportDataVersion.chequesChanged(book.getId());
         }
-        chequeRepository.saveAll(cheques);
 
-        return convertToDTO(book);
+        return convertToDTO(book, chequeBookCounterService.getCounts(book.getId()));
+    }
+
+    /**
+     * Creates a whole consignment of books in one transaction. Ranges are checked
+     * against each other as well as against existing books; any failure rolls back
+     * the batch.
+     */
+    @Transactional
+    public List<ChequeBookDTO> createChequeBooks(List<ChequeBookDTO> dtos) {
+        // Sorted by account then start number, any overlap shows up between neighbours
+        List<ChequeBookDTO> sorted = new ArrayList<>(dtos);
+        sorted.sort(Comparator.comparing(ChequeBookDTO::getAccountId)
+                .thenComparingLong(ChequeBookDTO::getStartNumber));
+        for (int i = 1; i < sorted.size(); i++) {
+            ChequeBookDTO prev = sorted.get(i - 1);
+            ChequeBookDTO cur = sorted.get(i);
+            if (prev.getAccountId().equals(cur.getAccountId()) && cur.getStartNumber() <= prev.getEndNumber()) {
+                throw new RuntimeException("Cheque number ranges " + prev.getStartNumber() + "-" + prev.getEndNumber()
+                        + " and " + cur.getStartNumber() + "-" + cur.getEndNumber() + " overlap in this batch.");
+            }
+        }
+
+        List<ChequeBookDTO> created = new ArrayList<>();
+        for (ChequeBookDTO dto : dtos) {
+            created.add(createChequeBook(dto));
+        }
+        return created;
+    }
+
+    /**
+     * Claims {@code count} consecutive free leaves of a book, see {@link ChequeLeafAllocator}.
+     */
+    @Transactional
+    public List<Cheque> claimUnusedLeaves(Long bookId, int count) {
+        return chequeLeafAllocator.claim(bookId, count);
+    }
+
+    @Transactional
+    public List<ChequeDTO> claimLeaves(Long bookId, int count) {
+        List<Cheque> claimed = chequeLeafAllocator.claim(bookId, count);
+        if (claimed.isEmpty()) {
+            throw new RuntimeException("No " + count + " consecutive unused cheques in this book.");
+        }
+        return claimed.stream()
+                .map(this::convertChequeToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public ChequeDTO updateLeafStatus(Long bookId, Long chequeNumber, ChequeStatus status, String remarks) {
+        Cheque cheque = chequeLeafAllocator.resolve(bookId, chequeNumber);
+        return updateChequeStatus(cheque.getId(), status, remarks);
     }
 
     @Transactional
@@ -113,12 +283,112 @@ public class ChequeBookService {
         }
 
         cheque = chequeRepository.save(cheque);
+        chequeBookCounterService.recordTransition(cheque.getChequeBook().getId(), oldStatus, status);
 
         auditLogService.logAction("Cheque", cheque.getId(), status.name(), oldStatus.name(), status.name());
 
         return convertChequeToDTO(cheque);
     }
 
+    /**
+     * Moves a leaf range or a set of cheques to one status with set-based updates.
+     * Items whose current status cannot move to the target, or that were changed
+     * concurrently, are reported as failed; the rest are applied.
+     */
+    @Transactional
+    public BulkStatusResultDTO updateChequeStatuses(BulkStatusUpdateDTO request) {
+        ChequeStatus target = request.getStatus();
+        if (target == null) {
+            throw new RuntimeException("Target status required.");
+        }
+        BulkStatusResultDTO result = new BulkStatusResultDTO();
+
+        // 1. Current state of every target: [id, bookId, number, status, version]
+        List<Object[]> rows = new ArrayList<>();
+        if (request.getChequeBookId() != null) {
+            rows = loadRangeForStatusChange(request);
+        } else if (request.getChequeIds() != null && !request.getChequeIds().isEmpty()) {
+            List<Long> ids = new ArrayList<>(new LinkedHashSet<>(request.getChequeIds()));
+            for (int i = 0; i < ids.size(); i += BULK_CHUNK_SIZE) {
+                rows.addAll(chequeRepository.findStatusRowsByIds(ids.subList(i, Math.min(ids.size(), i + BULK_CHUNK_SIZE))));
+            }
+            Set<Long> found = rows.stream().map(r -> (Long) r[0]).collect(Collectors.toSet());
+            for (Long id : ids) {
+                if (!found.contains(id)) {
+                    result.getFailed().add(new BulkStatusResultDTO.Failure(id, null, "Cheque not found"));
+                }
+            }
+        } else {
+            throw new RuntimeException("Cheque Book range or cheque IDs required.");
+        }
+
+        // 2. Validate transitions, grouped by current status
+        Map<ChequeStatus, List<Object[]>> byStatus = new EnumMap<>(ChequeStatus.class);
+        for (Object[] row : rows) {
+            ChequeStatus current = (ChequeStatus) row[3];
+            if (current.canTransitionTo(target)) {
+                byStatus.computeIfAbsent(current, s -> new ArrayList<>()).add(row);
+            } else {
+                result.getFailed().add(new BulkStatusResultDTO.Failure((Long) row[0], (Long) row[2],
+                        "Cannot change " + current + " to " + target));
+            }
+        }
+
+        // 3. One UPDATE per status and chunk; rows whose version moved meanwhile are skipped
+        List<AuditLog> logs = new ArrayList<>();
+        for (Map.Entry<ChequeStatus, List<Object[]>> group : byStatus.entrySet()) {
+            ChequeStatus from = group.getKey();
+            List<Object[]> groupRows = group.getValue();
+            Map<Long, Long> perBook = new HashMap<>();
+            for (int i = 0; i < groupRows.size(); i += BULK_CHUNK_SIZE) {
+                List<Object[]> chunk = groupRows.subList(i, Math.min(groupRows.size(), i + BULK_CHUNK_SIZE));
+                List<Object[]> idVersions = chunk.stream()
+                        .map(r -> new Object[] { r[0], r[4] })
+                        .collect(Collectors.toList());
+                Set<Long> updated = new HashSet<>(
+                        chequeLeafBulkWriter.updateStatus(idVersions, from, target, request.getRemarks()));
+                for (Object[] row : chunk) {
+                    Long id = (Long) row[0];
+                    if (updated.contains(id)) {
+                        result.getSucceeded().add(id);
+                        perBook.merge((Long) row[1], 1L, Long::sum);
+                        logs.add(AuditLog.builder().entityType("Cheque").entityId(id).action(target.name())
+                                .oldValue(from.name()).newValue(target.name()).build());
+                    } else {
+                        result.getFailed().add(new BulkStatusResultDTO.Failure(id, (Long) row[2],
+                                "Modified concurrently, please retry"));
+                    }
+                }
+            }
+            perBook.forEach((bookId, leaves) -> {
+                chequeBookCounterService.recordTransition(bookId, from, target, leaves);
+                reportDataVersion.chequesChanged(bookId); // Bulk JDBC writes bypass ChequeWriteListener
+            });
+        }
+
+        auditLogService.logActions(logs);
+        return result;
+    }
+
+    private List<Object[]> loadRangeForStatusChange(BulkStatusUpdateDTO request) {
+        ChequeBook book = chequeBookRepository.findByIdForUpdate(request.getChequeBookId())
+                .orElseThrow(() -> new RuntimeException("Cheque Book not found"));
+        Long from = request.getFromNumber();
+        Long to = request.getToNumber();
+        if (from == null || to == null || from > to || !book.containsLeaf(from) || !book.containsLeaf(to)) {
+            throw new RuntimeException("Leaf range must lie within the cheque book.");
+        }
+
+        // Virtual leaves in the range need rows before their status can change
+        if (book.isVirtual()) {
+            chequeLeafBulkWriter.insertUnusedLeaves(book.getId(), from, to);
+            reportDataVersion.chequesChanged(book.getId());
+            book.markLeavesMaterialized(from, to);
+            chequeBookRepository.save(book);
+        }
+        return chequeRepository.findStatusRowsByRange(book.getId(), from, to);
+    }
+
     @Transactional
     public ChequeDTO createOutgoingCheque(ChequeDTO dto) {
         // 1. Find next UNUSED cheque for the account (via ChequeBook)
@@ -132,10 +402,12 @@ public class ChequeBookService {
         if (dto.getId() != null) {
             cheque = chequeRepository.findById(dto.getId())
                     .orElseThrow(() -> new RuntimeException("Cheque not found"));
+        } else if (dto.getChequeBookId() != null && dto.getChequeNumber() != null) {
+            // Specific leaf picked from the book view (may still be virtual)
+            cheque = chequeLeafAllocator.resolve(dto.getChequeBookId(), dto.getChequeNumber());
         } else if (dto.getChequeBookId() != null) {
-            // Find first Unused
-            List<Cheque> unused = chequeRepository.findByChequeBookIdOrderByChequeNumberAsc(dto.getChequeBookId())
-                    .stream().filter(c -> c.getStatus() == ChequeStatus.UNUSED).collect(Collectors.toList());
+            // Next free leaf at the book's allocation cursor
+            List<Cheque> unused = chequeLeafAllocator.claim(dto.getChequeBookId(), 1);
             if (unused.isEmpty()) {
                 throw new RuntimeException("No unused cheques in this book.");
             }
@@ -143,6 +415,8 @@ public class ChequeBookService {
         } else {
             throw new RuntimeException("Cheque Book ID required.");
         }
+        chequeLeafAllocator.releaseClaim(cheque);
+        ChequeStatus previousStatus = cheque.getStatus();
 
         if (cheque.getStatus() != ChequeStatus.UNUSED && cheque.getStatus() != ChequeStatus.ISSUED) { // Allow editing
                                                                                                       // ISSUED if in
@@ -179,6 +453,7 @@ public class ChequeBookService {
         String action = (dto.getId() == null) ? "CREATE" : "UPDATE";
         String oldStatus = cheque.getStatus() != null ? cheque.getStatus().name() : "";
         cheque = chequeRepository.save(cheque);
+        chequeBookCounterService.recordTransition(cheque.getChequeBook().getId(), previousStatus, cheque.getStatus());
         String newStatus = cheque.getStatus() != null ? cheque.getStatus().name() : "";
 
         auditLogService.logAction("Cheque", cheque.getId(), action, oldStatus, newStatus);
@@ -186,24 +461,45 @@ public class ChequeBookService {
         return convertChequeToDTO(cheque);
     }
 
-    private ChequeBookDTO convertToDTO(ChequeBook book) {
+    private ChequeDTO unusedLeafDTO(ChequeBook book, long chequeNumber) {
+        ChequeDTO dto = new ChequeDTO();
+        dto.setChequeBookId(book.getId());
+        dto.setChequeNumber(chequeNumber);
+        dto.setStatus(ChequeStatus.UNUSED);
+        dto.setWorkflowStatus(ChequeWorkflowStatus.DRAFT);
+        return dto;
+    }
+
+    private ChequeBookDTO convertToDTO(ChequeBook book, Map<ChequeStatus, Long> counts) {
         ChequeBookDTO dto = new ChequeBookDTO();
         BeanUtils.copyProperties(book, dto);
         dto.setAccountId(book.getAccount().getId());
         dto.setBankName(book.getAccount().getBranch().getBank().getName());
         dto.setAccountNumber(book.getAccount().getAccountNumber());
 
-        dto.setTotalLeaves((int) (book.getEndNumber() - book.getStartNumber() + 1));
-        // Simple heuristic for used leaves, or query count of !UNUSED
-        // For now, let's leave usedLeaves as 0 or calculate if needed potentially
-        // expensive
+        int total = (int) (book.getEndNumber() - book.getStartNumber() + 1);
+        int unused = counts.getOrDefault(ChequeStatus.UNUSED, 0L).intValue();
+        dto.setTotalLeaves(total);
+        dto.setUsedLeaves(total - unused);
+        dto.setRemainingLeaves(unused);
+        dto.setVoidedLeaves(counts.getOrDefault(ChequeStatus.VOID, 0L).intValue());
+        dto.setPrintedLeaves(counts.getOrDefault(ChequeStatus.PRINTED, 0L).intValue());
+        dto.setStatusCounts(counts);
         return dto;
     }
 
     private ChequeDTO convertChequeToDTO(Cheque cheque) {
         ChequeDTO dto = new ChequeDTO();
-        BeanUtils.copyProperties(cheque, dto);
+        dto.setId(cheque.getId());
         dto.setChequeBookId(cheque.getChequeBook().getId());
+        dto.setChequeNumber(cheque.getChequeNumber());
+        dto.setStatus(cheque.getStatus());
+        dto.setAmount(cheque.getAmount());
+        dto.setPayeeName(cheque.getPayeeName());
+        dto.setChequeDate(cheque.getChequeDate());
+        dto.setWorkflowStatus(cheque.getWorkflowStatus());
+        dto.setRemarks(cheque.getRemarks());
+        dto.setPrintCount(cheque.getPrintCount());
         if (cheque.getVendor() != null) {
             dto.setVendorId(cheque.getVendor().getId());
             dto.setVendorName(cheque.getVendor().getName());
@@ -219,6 +515,7 @@ public class ChequeBookService {
         cheque.setWorkflowStatus(ChequeWorkflowStatus.APPROVED);
         cheque.setStatus(ChequeStatus.ISSUED);
         cheque = chequeRepository.save(cheque);
+        chequeBookCounterService.recordTransition(cheque.getChequeBook().getId(), oldStatus, ChequeStatus.ISSUED);
 
         auditLogService.logAction("Cheque", cheque.getId(), "ISSUE_APPROVED", oldStatus.name(),
                 ChequeStatus.ISSUED.name());
@@ -227,6 +524,7 @@ public class ChequeBookService {
     @Transactional
     public void executeRejectedChequeIssue(Long chequeId) {
         Cheque cheque = chequeRepository.findById(chequeId).orElseThrow(() -> new RuntimeException("Cheque not found"));
+        ChequeStatus oldStatus = cheque.getStatus();
 
         cheque.setWorkflowStatus(ChequeWorkflowStatus.REJECTED);
         // Revert to UNUSED and clear payee fields so it can be re-issued
@@ -237,6 +535,7 @@ public class ChequeBookService {
         cheque.setChequeDate(null);
 
         cheque = chequeRepository.save(cheque);
+        chequeBookCounterService.recordTransition(cheque.getChequeBook().getId(), oldStatus, ChequeStatus.UNUSED);
 
         auditLogService.logAction("Cheque", cheque.getId(), "ISSUE_REJECTED", "PENDING_APPROVAL",
                 "REJECTED (Reverted to UNUSED)");
@@ -0,0 +1,217 @@
+package com.cms.service;
+
+import com.cms.model.ChequeTemplate;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfContentByte;
+
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+/**
+ * A {@link ChequeTemplate}'s canvasConfig compiled once into typed, immutable
+ * field placements, so rendering a cheque does no JSON parsing, map lookups or
+ * trigonometry. Built by {@link ChequeLayoutCache}.
+ */
+public final class ChequeLayout {
+
+    private static final String DEFAULT_DATE_FORMAT = "dd-MM-yyyy";
+
+    private static final int MAX_SLOTS = 100;
+
+    // Standard Type1 fonts are not embedded, so one instance serves every document
+    private static final BaseFont HELVETICA = createFont(BaseFont.HELVETICA);
+    private static final BaseFont HELVETICA_BOLD = createFont(BaseFont.HELVETICA_BOLD);
+
+    private final Long templateId;
+    private final long layoutVersion;
+
+    public final Field payee;
+    public final Field amountNumeric;
+    public final Field date;
+    public final Field amountWords;
+    public final Field bankName;
+    public final Field companyName;
+    public final Field acPayee;
+    public final Field signatureLabel;
+    final DateTimeFormatter dateFormatter;
+    // null = the currency's customary grouping
+    final AmountInWords.Grouping amountWordsGrouping;
+    // Where the template background goes when drawn; null = page width, top of page
+    final Area background;
+    // N-up: offset of each cheque slot on a sheet, in fill order (row by row). Fields
+    // are positioned for slot 0; a template without a grid has one slot at (0, 0).
+    final float[] slotX;
+    final float[] slotY;
+    // Width of one slot (column pitch), the default width of the background
+    final float slotWidth;
+
+    private ChequeLayout(ChequeTemplate template, Map<String, Map<String, Object>> config) {
+        this.templateId = template.getId();
+        this.layoutVersion = versionOf(template);
+        this.payee = Field.of(config.get("payee"));
+        this.amountNumeric = Field.of(config.get("amountNumeric"));
+        this.date = Field.of(config.get("date"));
+        this.amountWords = Field.of(config.get("amountWords"));
+        this.bankName = Field.of(config.get("bankName"));
+        this.companyName = Field.of(config.get("companyName"));
+        this.acPayee = Field.of(config.get("acPayee"));
+        this.signatureLabel = Field.of(config.get("signatureLabel"));
+
+        Map<String, Object> dateConfig = config.get("date");
+        String format = dateConfig != null ? (String) dateConfig.getOrDefault("format", DEFAULT_DATE_FORMAT)
+                : DEFAULT_DATE_FORMAT;
+        try {
+            this.dateFormatter = DateTimeFormatter.ofPattern(format);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid date format '" + format + "' in template " + template.getName(), e);
+        }
+
+        this.background = Area.of(config.get("background"));
+
+        Map<String, Object> grid = config.get("grid");
+        int rows = grid != null ? (int) Field.number(grid, "rows", 1) : 1;
+        int columns = grid != null ? (int) Field.number(grid, "columns", 1) : 1;
+        if (rows < 1 || columns < 1 || rows * columns > MAX_SLOTS) {
+            throw new RuntimeException("Invalid grid " + rows + "x" + columns + " in template " + template.getName());
+        }
+        // Default pitch splits the sheet evenly; rows run down the page
+        float rowPitch = grid != null ? Field.number(grid, "rowPitch", PageSize.A4.getHeight() / rows)
+                : PageSize.A4.getHeight();
+        float columnPitch = grid != null ? Field.number(grid, "columnPitch", PageSize.A4.getWidth() / columns)
+                : PageSize.A4.getWidth();
+        float offsetX = grid != null ? Field.number(grid, "offsetX", 0) : 0;
+        float offsetY = grid != null ? Field.number(grid, "offsetY", 0) : 0;
+        this.slotWidth = Math.min(columnPitch, PageSize.A4.getWidth());
+        this.slotX = new float[rows * columns];
+        this.slotY = new float[rows * columns];
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                slotX[row * columns + column] = offsetX + column * columnPitch;
+                slotY[row * columns + column] = offsetY - row * rowPitch;
+            }
+        }
+
+        Map<String, Object> wordsConfig = config.get("amountWords");
+        Object grouping = wordsConfig != null ? wordsConfig.get("grouping") : null;
+        try {
+            this.amountWordsGrouping = grouping != null
+                    ? AmountInWords.Grouping.valueOf(grouping.toString().toUpperCase())
+                    : null;
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid amount grouping '" + grouping + "' in template " + template.getName()
+                    + ", expected INTERNATIONAL or INDIAN", e);
+        }
+    }
+
+    static ChequeLayout compile(ChequeTemplate template, ObjectMapper objectMapper) {
+        try {
+            Map<String, Map<String, Object>> config = objectMapper.readValue(template.getCanvasConfig(),
+                    new TypeReference<>() {
+                    });
+            return new ChequeLayout(template, config);
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid layout in template " + template.getName(), e);
+        }
+    }
+
+    static long versionOf(ChequeTemplate template) {
+        return template.getLayoutVersion() != null ? template.getLayoutVersion() : 0L;
+    }
+
+    public Long getTemplateId() {
+        return templateId;
+    }
+
+    public long getLayoutVersion() {
+        return layoutVersion;
+    }
+
+    /** Cheques per physical page. */
+    public int getSlotsPerPage() {
+        return slotX.length;
+    }
+
+    private static BaseFont createFont(String name) {
+        try {
+            return BaseFont.createFont(name, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not load font " + name, e);
+        }
+    }
+
+    /** A rectangle in points, origin bottom left; a zero width or height follows the image's aspect ratio. */
+    static final class Area {
+        final float x;
+        final float y;
+        final float width;
+        final float height;
+
+        private Area(Map<String, Object> config) {
+            this.x = Field.number(config, "x", 0);
+            this.y = Field.number(config, "y", 0);
+            this.width = Field.number(config, "width", 0);
+            this.height = Field.number(config, "height", 0);
+        }
+
+        static Area of(Map<String, Object> config) {
+            return config != null ? new Area(config) : null;
+        }
+    }
+
+    /** One positioned text field; absent from the template means {@code null}. */
+    public static final class Field {
+        private final BaseFont font;
+        private final float fontSize;
+        private final float charSpacing;
+        // Text matrix [a b c d x y], rotation about the start point precomputed
+        private final float a;
+        private final float b;
+        private final float c;
+        private final float d;
+        private final float x;
+        private final float y;
+
+        private Field(Map<String, Object> config) {
+            this.x = number(config, "x", 0);
+            this.y = number(config, "y", 0);
+            this.fontSize = number(config, "fontSize", 10);
+            this.charSpacing = number(config, "charSpacing", 0);
+            this.font = Boolean.TRUE.equals(config.get("isBold")) ? HELVETICA_BOLD : HELVETICA;
+
+            float rotation = number(config, "rotation", 0); // Degrees
+            double rad = Math.toRadians(rotation);
+            float cos = rotation != 0 ? (float) Math.cos(rad) : 1f;
+            float sin = rotation != 0 ? (float) Math.sin(rad) : 0f;
+            this.a = cos;
+            this.b = sin;
+            this.c = -sin;
+            this.d = cos;
+        }
+
+        static Field of(Map<String, Object> config) {
+            return config != null ? new Field(config) : null;
+        }
+
+        /** Draws the text with the field moved by (dx, dy), the offset of the cheque's slot. */
+        public void draw(PdfContentByte cb, String text, float dx, float dy) {
+            cb.saveState();
+            cb.beginText();
+            cb.setFontAndSize(font, fontSize);
+            if (charSpacing > 0) {
+                cb.setCharacterSpacing(charSpacing);
+            }
+            cb.setTextMatrix(a, b, c, d, x + dx, y + dy);
+            cb.showText(text);
+            cb.endText();
+            cb.restoreState();
+        }
+
+        private static float number(Map<String, Object> config, String key, float defaultValue) {
+            Object value = config.get(key);
+            return value instanceof Number ? ((Number) value).floatValue() : defaultValue;
+        }
+    }
+}
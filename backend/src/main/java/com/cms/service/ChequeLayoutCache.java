@@ -0,0 +1,35 @@
+package com.cms.service;
+
+import com.cms.model.ChequeTemplate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled {@link ChequeLayout}s by template ID. An entry is reused only while
+ * its layout version matches the template's, so a template edited through
+ * another instance is recompiled on next use here as well.
+ */
+@Component
+public class ChequeLayoutCache {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<Long, ChequeLayout> layouts = new ConcurrentHashMap<>();
+
+    public ChequeLayout get(ChequeTemplate template) {
+        ChequeLayout cached = layouts.get(template.getId());
+        if (cached != null && cached.getLayoutVersion() == ChequeLayout.versionOf(template)) {
+            return cached;
+        }
+        ChequeLayout compiled = ChequeLayout.compile(template, objectMapper);
+        layouts.put(template.getId(), compiled);
+        return compiled;
+    }
+
+    public void invalidate(Long templateId) {
+        layouts.remove(templateId);
+    }
+}
@@ -0,0 +1,189 @@
+package com.cms.service;
+
+import com.cms.model.Cheque;
+import com.cms.model.ChequeBook;
+import com.cms.model.ChequeStatus;
+import com.cms.repository.ChequeBookRepository;
+import com.cms.repository.ChequeRepository;
+import com.cms.security.CurrentUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Hands out cheque leaves to makers.
+ * <p>
+ * {@link ChequeBook#getCurrentNumber()} is the allocation cursor: every leaf below it
+ * has already been handed out. Claims lock the book row, take the next free run at
+ * the cursor and advance it, so concurrent clerks on one book queue on a single row
+ * lock instead of racing for the same leaf. Only when the cursor has reached the end
+ * of the book are leaves that came back (e.g. rejected issues) reused, picked with
+ * SKIP LOCKED.
+ * <p>
+ * A claimed leaf stays UNUSED but records who claimed it and when. For
+ * {@code app.leaves.claim-minutes} no other claim hands it out and no other maker
+ * can write it. After that an abandoned claim lapses and the leaf is free again.
+ */
+@Service
+public class ChequeLeafAllocator {
+
+    @Autowired
+    private ChequeBookRepository chequeBookRepository;
+
+    @Autowired
+    private ChequeRepository chequeRepository;
+
+    @Value("${app.leaves.claim-minutes:30}")
+    private long claimMinutes;
+
+    /**
+     * Claims {@code count} consecutive free leaves for the current user, lowest
+     * numbers first. Returns an empty list when the book has no such run left.
+     */
+    @Transactional
+    public List<Cheque> claim(Long bookId, int count) {
+        if (count < 1) {
+            throw new RuntimeException("Leaf count must be at least 1.");
+        }
+        ChequeBook book = chequeBookRepository.findByIdForUpdate(bookId)
+                .orElseThrow(() -> new RuntimeException("Cheque Book not found"));
+
+        LocalDateTime now = LocalDateTime.now();
+        long cursor = Math.max(book.getCurrentNumber(), book.getStartNumber());
+        List<Cheque> claimed = book.isVirtual() ? claimVirtualRun(book, cursor, count, now)
+                : claimFreeRun(book, cursor, count, now);
+        if (!claimed.isEmpty()) {
+            book.setCurrentNumber(claimed.get(claimed.size() - 1).getChequeNumber() + 1);
+            chequeBookRepository.save(book);
+        } else {
+            // Cursor exhausted: fall back to leaves below it, in a virtual book first those
+            // never handed out (passed over while looking for a longer run), then those handed back
+            if (book.isVirtual()) {
+                claimed = claimVirtualRun(book, book.getStartNumber(), count, now);
+            }
+            if (claimed.isEmpty()) {
+                claimed = claimFreeRun(book, book.getStartNumber(), count, now);
+            }
+        }
+        return stamp(claimed, now);
+    }
+
+    /**
+     * Ends the claim on a leaf that is about to be written. Fails if another user
+     * still holds it.
+     */
+    public void releaseClaim(Cheque cheque) {
+        if (cheque.getClaimedAt() == null) {
+            return;
+        }
+        Long userId = CurrentUser.getId();
+        if (cheque.getClaimedBy() != null && !cheque.getClaimedBy().equals(userId)
+                && !cheque.getClaimedAt().isBefore(claimExpiry(LocalDateTime.now()))) {
+            throw new RuntimeException("Cheque " + cheque.getChequeNumber() + " is reserved by another user.");
+        }
+        cheque.setClaimedBy(null);
+        cheque.setClaimedAt(null);
+    }
+
+    /**
+     * Returns the Cheque row for a specific leaf, creating it if the leaf is still
+     * virtual. The leaf's status is not checked.
+     */
+    @Transactional
+    public Cheque resolve(Long bookId, Long chequeNumber) {
+        ChequeBook book = chequeBookRepository.findByIdForUpdate(bookId)
+                .orElseThrow(() -> new RuntimeException("Cheque Book not found"));
+        if (!book.containsLeaf(chequeNumber)) {
+            throw new RuntimeException("Cheque number " + chequeNumber + " is outside this cheque book.");
+        }
+        if (book.isLeafMaterialized(chequeNumber)) {
+            return chequeRepository.findByChequeBookIdAndChequeNumber(bookId, chequeNumber)
+                    .orElseThrow(() -> new RuntimeException("Cheque not found"));
+        }
+        return materialize(book, chequeNumber);
+    }
+
+    // Virtual book: the run of never materialized leaves is found in the bitmap from
+    // `fromNumber`, rows are only written for it
+    private List<Cheque> claimVirtualRun(ChequeBook book, long fromNumber, int count, LocalDateTime now) {
+        BitSet bits = book.getLeafBits();
+        int last = (int) (book.getEndNumber() - book.getStartNumber());
+        int from = (int) (fromNumber - book.getStartNumber());
+        while (true) {
+            int start = bits.nextClearBit(from);
+            if (start + count - 1 > last) {
+                return Collections.emptyList();
+            }
+            int nextSet = bits.nextSetBit(start);
+            if (nextSet == -1 || nextSet >= start + count) {
+                List<Cheque> claimed = new ArrayList<>(count);
+                for (int i = start; i < start + count; i++) {
+                    claimed.add(materialize(book, book.getStartNumber() + i, now));
+                }
+                return claimed;
+            }
+            from = nextSet + 1;
+        }
+    }
+
+    // Materialized leaves: one query finds the lowest free run from `from`, which is then locked.
+    // Locking only comes up short if another transaction holds one of its rows; then look further.
+    private List<Cheque> claimFreeRun(ChequeBook book, long from, int count, LocalDateTime now) {
+        LocalDateTime expiry = claimExpiry(now);
+        while (from + count - 1 <= book.getEndNumber()) {
+            Long start = chequeRepository.findFirstFreeRun(book.getId(), from, book.getEndNumber(), count, expiry);
+            if (start == null) {
+                return Collections.emptyList();
+            }
+            List<Cheque> window = chequeRepository.findFreeLeavesForUpdate(book.getId(), start, start + count - 1,
+                    expiry);
+            if (window.size() == count) {
+                return window;
+            }
+            from = start + 1;
+        }
+        return Collections.emptyList();
+    }
+
+    private List<Cheque> stamp(List<Cheque> claimed, LocalDateTime now) {
+        Long userId = CurrentUser.getId();
+        for (Cheque cheque : claimed) {
+            cheque.setClaimedBy(userId);
+            cheque.setClaimedAt(now);
+        }
+        return claimed;
+    }
+
+    private LocalDateTime claimExpiry(LocalDateTime now) {
+        return now.minusMinutes(claimMinutes);
+    }
+
+    // Caller must hold the book lock
+    private Cheque materialize(ChequeBook book, long chequeNumber) {
+        return materialize(book, chequeNumber, null);
+    }
+
+    // Claimed leaves are inserted already stamped, saving an update per row
+    private Cheque materialize(ChequeBook book, long chequeNumber, LocalDateTime claimedAt) {
+        Cheque cheque = new Cheque();
+        cheque.setChequeBook(book);
+        cheque.setChequeNumber(chequeNumber);
+        cheque.setStatus(ChequeStatus.UNUSED);
+        if (claimedAt != null) {
+            cheque.setClaimedBy(CurrentUser.getId());
+            cheque.setClaimedAt(claimedAt);
+        }
+        cheque = chequeRepository.save(cheque);
+
+        book.markLeafMaterialized(chequeNumber);
+        chequeBookRepository.save(book);
+        return cheque;
+    }
+}
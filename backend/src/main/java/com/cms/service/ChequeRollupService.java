@@ -0,0 +1,77 @@
+package com.cms.service;
+
+import com.cms.model.Company;
+import com.cms.model.Role;
+import com.cms.repository.ChequeDailyRollupRepository;
+import com.cms.repository.CompanyRepository;
+import com.cms.repository.UserCompanyRoleRepository;
+import com.cms.security.CurrentUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Rebuilds {@link com.cms.model.ChequeDailyRollup} from the cheque tables. Day to
+ * day the rollup is maintained by triggers; a rebuild runs when they are first
+ * installed, and on request by an admin, e.g. after a manual data fix or a restore.
+ * <p>
+ * Each company is rebuilt in its own transaction under that company's advisory
+ * lock, which the triggers take shared: cheque writes of the company wait for the
+ * rebuild of that company only, and no trigger delta is lost or counted twice.
+ */
+@Service
+public class ChequeRollupService {
+
+    @Autowired
+    private ChequeDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private UserCompanyRoleRepository userCompanyRoleRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /** Rebuilds one company, or all of them when companyId is null. Admins only. */
+    public int rebuildAsAdmin(Long companyId) {
+        Long userId = CurrentUser.getId();
+        if (userId == null || !userCompanyRoleRepository.existsByUser_IdAndRole(userId, Role.ADMIN)) {
+            throw new RuntimeException("Only an administrator can rebuild the cheque rollup.");
+        }
+        if (companyId != null) {
+            companyRepository.findById(companyId).orElseThrow(() -> new RuntimeException("Company not found"));
+            int groups = rebuildCompany(companyId);
+            System.out.println("Cheque rollup of company " + companyId + " rebuilt with " + groups + " group(s).");
+            return groups;
+        }
+        return rebuild();
+    }
+
+    public int rebuild() {
+        int groups = 0;
+        for (Company company : companyRepository.findAll()) {
+            groups += rebuildCompany(company.getId());
+        }
+        newTransaction().executeWithoutResult(status -> rollupRepository.deleteOrphanGroups());
+        System.out.println("Cheque rollup rebuilt with " + groups + " group(s).");
+        return groups;
+    }
+
+    private int rebuildCompany(Long companyId) {
+        return newTransaction().execute(status -> {
+            rollupRepository.lockCompany(companyId);
+            rollupRepository.deleteCompanyGroups(companyId);
+            return rollupRepository.rebuildOutgoing(companyId) + rollupRepository.rebuildIncoming(companyId);
+        });
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction;
+    }
+}
@@ -4,8 +4,15 @@ import com.cms.model.ChequeTemplate;
 import com.cms.repository.ChequeTemplateRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.List;
+import java.util.UUID;
 
 @Service
 public class ChequeTemplateService {
@@ -13,6 +20,12 @@ public class ChequeTemplateService {
     @Autowired
     private ChequeTemplateRepository chequeTemplateRepository;
 
+    @Autowired
+    private ChequeLayoutCache chequeLayoutCache;
+
+    @Autowired
+    private ChequeBackgroundCache chequeBackgroundCache;
+
     public List<ChequeTemplate> getAllTemplates() {
         return chequeTemplateRepository.findAll();
     }
@@ -33,10 +46,36 @@ public class ChequeTemplateService {
         template.setBackgroundPath(templateDetails.getBackgroundPath());
         template.setCanvasConfig(templateDetails.getCanvasConfig());
         template.setActive(templateDetails.isActive());
-        return chequeTemplateRepository.save(template);
+        template.setLayoutVersion(ChequeLayout.versionOf(template) + 1);
+        template = chequeTemplateRepository.save(template);
+        chequeLayoutCache.invalidate(id);
+        chequeBackgroundCache.invalidate(id);
+        return template;
+    }
+
+    /** Stores the image under the upload directory and makes it the template's background. */
+    public ChequeTemplate uploadBackground(Long id, MultipartFile file) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("Background image is empty.");
+        }
+        ChequeTemplate template = getTemplateById(id);
+
+        String fileName = "templates/" + UUID.randomUUID() + "_" + StringUtils.cleanPath(file.getOriginalFilename());
+        Path target = chequeBackgroundCache.resolve(fileName);
+        Files.createDirectories(target.getParent());
+        Files.copy(file.getInputStream(), target, StandardCopyOption.REPLACE_EXISTING);
+
+        template.setBackgroundPath(fileName);
+        template.setLayoutVersion(ChequeLayout.versionOf(template) + 1);
+        template = chequeTemplateRepository.save(template);
+        chequeLayoutCache.invalidate(id);
+        chequeBackgroundCache.invalidate(id);
+        return template;
     }
 
     public void deleteTemplate(Long id) {
         chequeTemplateRepository.deleteById(id);
+        chequeLayoutCache.invalidate(id);
+        chequeBackgroundCache.invalidate(id);
     }
 }
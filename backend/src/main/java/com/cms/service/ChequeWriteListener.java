@@ -0,0 +1,28 @@
+package com.cms.service;
+
+import com.cms.model.Cheque;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Moves the report data version on every cheque written through JPA. Created and
+ * autowired by Spring through Hibernate's bean container; bulk JDBC writes call
+ * {@link ReportDataVersion} themselves.
+ */
+public class ChequeWriteListener {
+
+    @Autowired
+    private ReportDataVersion reportDataVersion;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void written(Cheque cheque) {
+        // Outside Spring (e.g. plain Hibernate tools) there is nothing to notify
+        if (reportDataVersion != null && cheque.getChequeBook() != null) {
+            reportDataVersion.chequesChanged(cheque.getChequeBook().getId());
+        }
+    }
+}
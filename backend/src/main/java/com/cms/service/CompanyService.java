@@ -24,6 +24,9 @@ public class CompanyService {
     @Autowired
     private CompanyRepository companyRepository;
 
+    @Autowired
+    private ReportDataVersion reportDataVersion;
+
     @Value("${app.upload.dir:uploads}")
     private String uploadDir;
 
@@ -72,6 +75,7 @@ public class CompanyService {
         }
 
         existingCompany = companyRepository.save(existingCompany);
+        reportDataVersion.companyDataChanged(existingCompany.getId());
         return convertToDTO(existingCompany);
     }
 
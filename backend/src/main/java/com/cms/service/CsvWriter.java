@@ -0,0 +1,120 @@
+package com.cms.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes RFC 4180 CSV in UTF-8 straight to an output stream, optionally gzipped:
+ * records end in CRLF, and fields containing a comma, quote or line break are
+ * quoted with inner quotes doubled. Nothing is buffered beyond a few kilobytes.
+ * <p>
+ * {@link #close()} flushes and writes the gzip trailer but leaves the underlying
+ * stream open, as it belongs to the servlet container.
+ */
+public final class CsvWriter implements AutoCloseable {
+
+    // Lets Excel recognise the file as UTF-8; other readers skip it
+    private static final char BYTE_ORDER_MARK = '\uFEFF';
+
+    private final GZIPOutputStream gzip;
+    private final Writer writer;
+    private boolean firstField = true;
+
+    public CsvWriter(OutputStream out, boolean gzipped) {
+        try {
+            // Sync flush so flush() pushes compressed bytes to the client, not just into the deflater
+            this.gzip = gzipped ? new GZIPOutputStream(out, 8192, true) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.writer = new BufferedWriter(new OutputStreamWriter(gzip != null ? gzip : out, StandardCharsets.UTF_8));
+        write(String.valueOf(BYTE_ORDER_MARK));
+    }
+
+    /** Whether an {@code Accept-Encoding} header allows a gzipped response. */
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    public CsvWriter field(Object value) {
+        return field(value != null ? value.toString() : null);
+    }
+
+    public CsvWriter field(String value) {
+        if (!firstField) {
+            write(",");
+        }
+        firstField = false;
+        if (value == null || value.isEmpty()) {
+            return this;
+        }
+        if (needsQuotes(value)) {
+            write("\"");
+            write(value.replace("\"", "\"\""));
+            write("\"");
+        } else {
+            write(value);
+        }
+        return this;
+    }
+
+    public CsvWriter endRecord() {
+        write("\r\n");
+        firstField = true;
+        return this;
+    }
+
+    /** Sends what has been written so far, e.g. the header before a slow query returns its first row. */
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            writer.flush();
+            if (gzip != null) {
+                gzip.finish();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean needsQuotes(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void write(String text) {
+        try {
+            writer.write(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -22,6 +22,9 @@ public class CustomerService {
     @Autowired
     private CompanyRepository companyRepository;
 
+    @Autowired
+    private ReportDataVersion reportDataVersion;
+
     public List<CustomerDTO> getCustomersByCompany(Long companyId) {
         return customerRepository.findByCompanyId(companyId).stream()
                 .map(this::convertToDTO)
@@ -60,6 +63,7 @@ public class CustomerService {
         BeanUtils.copyProperties(customerDTO, existingCustomer, "id", "companyId");
 
         existingCustomer = customerRepository.save(existingCustomer);
+        reportDataVersion.companyDataChanged(existingCustomer.getCompany().getId());
         return convertToDTO(existingCustomer);
     }
 
@@ -4,8 +4,10 @@ import com.cms.dto.ActivityDTO;
 import com.cms.dto.DashboardStatsDTO;
 import com.cms.dto.PdcSummaryDTO;
 import com.cms.model.Cheque;
+import com.cms.model.ChequeDirection;
 import com.cms.model.IncomingCheque;
 import com.cms.repository.ApprovalRequestRepository;
+import com.cms.repository.ChequeDailyRollupRepository;
 import com.cms.repository.ChequeRepository;
 import com.cms.repository.IncomingChequeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -29,10 +31,14 @@ public class DashboardService {
     @Autowired
     private ApprovalRequestRepository approvalRequestRepository;
 
-    public DashboardStatsDTO getStats() {
-        // 1. Get Summaries
-        List<PdcSummaryDTO> outSummary = chequeRepository.getOutgoingChequeSummary();
-        List<PdcSummaryDTO> inSummary = incomingChequeRepository.getIncomingChequeSummary();
+    @Autowired
+    private ChequeDailyRollupRepository rollupRepository;
+
+    // companyId scopes the totals and due counts; null = all companies
+    public DashboardStatsDTO getStats(Long companyId) {
+        // 1. Get Summaries (from the rollup, one row per group)
+        List<PdcSummaryDTO> outSummary = rollupRepository.getOutgoingChequeSummary(companyId);
+        List<PdcSummaryDTO> inSummary = rollupRepository.getIncomingChequeSummary(companyId);
 
         long totalIssued = 0;
         BigDecimal totalIssuedAmt = BigDecimal.ZERO;
@@ -64,9 +70,10 @@ public class DashboardService {
 
         // 2. Due Today
         LocalDate today = LocalDate.now();
-        List<Cheque> dueOut = chequeRepository.findByStatusAndChequeDate(com.cms.model.ChequeStatus.ISSUED, today);
-        List<IncomingCheque> dueIn = incomingChequeRepository
-                .findByStatusAndChequeDate(com.cms.model.IncomingChequeStatus.PENDING, today);
+        long dueOut = rollupRepository.countOnDate(ChequeDirection.OUTGOING,
+                com.cms.model.ChequeStatus.ISSUED.name(), today, companyId);
+        long dueIn = rollupRepository.countOnDate(ChequeDirection.INCOMING,
+                com.cms.model.IncomingChequeStatus.PENDING.name(), today, companyId);
 
         // 3. Approvals
         long pending = approvalRequestRepository.findByStatus("PENDING").size();
@@ -111,8 +118,8 @@ public class DashboardService {
                 .totalReceivedAmount(totalReceivedAmt)
                 .bouncedCount(bounced)
                 .pendingApprovalCount(pending)
-                .chequesDueToday(dueOut.size())
-                .incomingDueToday(dueIn.size())
+                .chequesDueToday(dueOut)
+                .incomingDueToday(dueIn)
                 .recentActivity(activity)
                 .build();
     }
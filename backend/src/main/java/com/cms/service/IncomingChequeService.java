@@ -1,8 +1,10 @@
 package com.cms.service;
 
 import com.cms.dto.IncomingChequeDTO;
+import com.cms.model.BankAccount;
 import com.cms.model.Customer;
 import com.cms.model.IncomingCheque;
+import com.cms.repository.BankAccountRepository;
 import com.cms.repository.CustomerRepository;
 import com.cms.repository.IncomingChequeRepository;
 import org.springframework.beans.BeanUtils;
@@ -29,6 +31,9 @@ public class IncomingChequeService {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private BankAccountRepository bankAccountRepository;
+
     private final Path fileStorageLocation = Paths.get("uploads/incoming-cheques").toAbsolutePath().normalize();
 
     public IncomingChequeService() {
@@ -41,7 +46,7 @@ public class IncomingChequeService {
 
     @Transactional(readOnly = true)
     public List<IncomingChequeDTO> getAllIncomingCheques() {
-        return incomingChequeRepository.findAll().stream()
+        return incomingChequeRepository.findAllWithCustomer().stream()
                 .map(this::convertToDTO)
                 .collect(Collectors.toList());
     }
@@ -69,6 +74,7 @@ public class IncomingChequeService {
         Customer customer = customerRepository.findById(dto.getCustomerId())
                 .orElseThrow(() -> new RuntimeException("Customer not found"));
         cheque.setCustomer(customer);
+        cheque.setDepositAccount(resolveDepositAccount(dto.getDepositAccountId(), customer));
 
         // Generate Internal Ref
         cheque.setInternalRef("INC-" + System.currentTimeMillis()); // Simple unique ref
@@ -104,6 +110,8 @@ public class IncomingChequeService {
         existingCheque.setRemarks(dto.getRemarks());
         existingCheque.setInvoiceNumber(dto.getInvoiceNumber());
         existingCheque.setStatus(dto.getStatus());
+        existingCheque.setDepositAccount(
+                resolveDepositAccount(dto.getDepositAccountId(), existingCheque.getCustomer()));
 
         if (file != null && !file.isEmpty()) {
             String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
@@ -124,11 +132,28 @@ public class IncomingChequeService {
         incomingChequeRepository.deleteById(id);
     }
 
+    // Optional; must be one of the customer's company's accounts
+    private BankAccount resolveDepositAccount(Long accountId, Customer customer) {
+        if (accountId == null) {
+            return null;
+        }
+        BankAccount account = bankAccountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Deposit account not found"));
+        if (!account.getCompany().getId().equals(customer.getCompany().getId())) {
+            throw new RuntimeException("Deposit account belongs to another company.");
+        }
+        return account;
+    }
+
     private IncomingChequeDTO convertToDTO(IncomingCheque cheque) {
         IncomingChequeDTO dto = new IncomingChequeDTO();
         BeanUtils.copyProperties(cheque, dto);
         dto.setCustomerId(cheque.getCustomer().getId());
         dto.setCustomerName(cheque.getCustomer().getName());
+        if (cheque.getDepositAccount() != null) {
+            dto.setDepositAccountId(cheque.getDepositAccount().getId());
+            dto.setDepositAccountNumber(cheque.getDepositAccount().getAccountNumber());
+        }
         return dto;
     }
 
@@ -1,10 +1,13 @@
 package com.cms.service;
 
+import com.cms.dto.IncomingPdcDTO;
+import com.cms.dto.OutgoingPdcDTO;
 import com.cms.dto.PdcSummaryDTO;
 import com.cms.model.Cheque;
 import com.cms.model.ChequeStatus;
 import com.cms.model.IncomingCheque;
 import com.cms.model.IncomingChequeStatus;
+import com.cms.repository.ChequeDailyRollupRepository;
 import com.cms.repository.ChequeRepository;
 import com.cms.repository.IncomingChequeRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,6 +28,12 @@ public class PdcService {
     @Autowired
     private ChequeRepository chequeRepository;
 
+    @Autowired
+    private ChequeBookCounterService chequeBookCounterService;
+
+    @Autowired
+    private ChequeDailyRollupRepository rollupRepository;
+
     /**
      * Auto transition PDCs to DUE status when Cheque Date arrives.
      * Runs daily at midnight.
@@ -63,28 +72,31 @@ public class PdcService {
         if (!dueOutgoingIssued.isEmpty() || !dueOutgoingPrinted.isEmpty()) {
             chequeRepository.saveAll(dueOutgoingIssued);
             chequeRepository.saveAll(dueOutgoingPrinted);
+            chequeBookCounterService.recordTransitions(dueOutgoingIssued, ChequeStatus.ISSUED, ChequeStatus.DUE);
+            chequeBookCounterService.recordTransitions(dueOutgoingPrinted, ChequeStatus.PRINTED, ChequeStatus.DUE);
             System.out.println(
                     "Updated " + (dueOutgoingIssued.size() + dueOutgoingPrinted.size()) + " Outgoing Cheques to DUE.");
         }
     }
 
-    public List<PdcSummaryDTO> getPdcExposureReport() {
+    public List<PdcSummaryDTO> getPdcExposureReport(Long companyId) {
         List<PdcSummaryDTO> report = new ArrayList<>();
-        report.addAll(incomingChequeRepository.getIncomingChequeSummary());
-        report.addAll(chequeRepository.getOutgoingChequeSummary());
+        report.addAll(rollupRepository.getIncomingChequeSummary(companyId));
+        report.addAll(rollupRepository.getOutgoingChequeSummary(companyId));
         return report;
     }
 
-    // Manual trigger for testing
+    // Manual trigger for testing; processDuePdcs is called on this, so it needs its own transaction
+    @Transactional
     public void runPdcCheckNow() {
         processDuePdcs();
     }
 
-    public List<Cheque> getActiveOutgoingCheques() {
+    public List<OutgoingPdcDTO> getActiveOutgoingCheques() {
         return chequeRepository.findActiveOutgoingCheques();
     }
 
-    public List<IncomingCheque> getActiveIncomingCheques() {
+    public List<IncomingPdcDTO> getActiveIncomingCheques() {
         return incomingChequeRepository.findActiveIncomingCheques();
     }
 }
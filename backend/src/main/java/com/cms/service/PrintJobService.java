@@ -0,0 +1,206 @@
+package com.cms.service;
+
+import com.cms.dto.PrintJobDTO;
+import com.cms.model.Cheque;
+import com.cms.model.ChequeTemplate;
+import com.cms.model.PrintJob;
+import com.cms.model.PrintJobStatus;
+import com.cms.repository.PrintJobRepository;
+import com.cms.security.CurrentUser;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Batch prints as background jobs. A job renders into a spool file on a small,
+ * bounded pool and records the print once, when the file is complete; clients poll
+ * for progress and download the file (with Range support) as often as they need.
+ */
+@Service
+public class PrintJobService extends SpoolJobService<PrintJob> {
+
+    @Autowired
+    private PrintJobRepository printJobRepository;
+
+    @Autowired
+    private ChequePrintingService chequePrintingService;
+
+    @Value("${app.printing.spool-dir:uploads/print-spool}")
+    private String spoolDir;
+
+    @Value("${app.printing.job-threads:2}")
+    private int jobThreads;
+
+    @Value("${app.printing.job-queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.printing.job-retention-hours:24}")
+    private long retentionHours;
+
+    @PostConstruct
+    void start() throws IOException {
+        startSpool(spoolDir, "print-job", jobThreads, new ArrayBlockingQueue<>(queueCapacity));
+    }
+
+    public PrintJobDTO submit(List<Long> chequeIds, Long templateId, boolean withBackground) {
+        if (chequeIds == null || chequeIds.isEmpty()) {
+            throw new RuntimeException("No cheques selected for printing.");
+        }
+        chequePrintingService.getTemplate(templateId); // Fail now rather than in the worker
+
+        PrintJob job = printJobRepository.save(PrintJob.builder()
+                .templateId(templateId)
+                .chequeIds(chequeIds.stream().map(String::valueOf).collect(Collectors.joining(",")))
+                .totalCheques(chequeIds.size())
+                .withBackground(withBackground)
+                .requestedBy(CurrentUser.getId())
+                .build());
+
+        // The worker runs as the submitting user so the print is audited under their name
+        Long jobId = job.getId();
+        try {
+            jobPool.execute(new DelegatingSecurityContextRunnable(() -> run(jobId)));
+        } catch (RejectedExecutionException e) {
+            job.setStatus(PrintJobStatus.FAILED);
+            job.setErrorMessage("Print queue is full.");
+            printJobRepository.save(job);
+            throw new RuntimeException("Print queue is full, please try again later.");
+        }
+        return convertToDTO(job);
+    }
+
+    public PrintJobDTO getJob(Long jobId) {
+        return convertToDTO(checkAccess(findJob(jobId), "Print job not found"));
+    }
+
+    /** The finished spool file of a completed job. */
+    public Path getJobFile(Long jobId) {
+        PrintJob job = checkAccess(findJob(jobId), "Print job not found");
+        if (job.getStatus() == PrintJobStatus.EXPIRED) {
+            throw new RuntimeException("Print job output has expired, please submit the job again.");
+        }
+        if (job.getStatus() != PrintJobStatus.COMPLETED) {
+            throw new RuntimeException("Print job is not ready yet.");
+        }
+        return spoolFile(job, "Print job output not found.");
+    }
+
+    private void run(Long jobId) {
+        PrintJob job = printJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        job.setStatus(PrintJobStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        printJobRepository.save(job);
+
+        AtomicLong rendered = startProgress(jobId);
+        try {
+            List<Cheque> cheques = chequePrintingService.loadChequesForPrinting(parseIds(job.getChequeIds()));
+            ChequeTemplate template = chequePrintingService.getTemplate(job.getTemplateId());
+            job.setTotalCheques(cheques.size());
+
+            Path target = writeSpoolFile(job, out -> chequePrintingService.writeChequePdf(cheques, template,
+                    Boolean.TRUE.equals(job.getWithBackground()), out, rendered::set));
+
+            // Recorded once per job, however many times the file is downloaded
+            chequePrintingService.recordPrints(cheques);
+
+            job.setStatus(PrintJobStatus.COMPLETED);
+            job.setRenderedCheques(cheques.size());
+            job.setSpoolPath(target.toString());
+            job.setFileSize(Files.size(target));
+        } catch (Exception e) {
+            job.setStatus(PrintJobStatus.FAILED);
+            job.setRenderedCheques((int) rendered.get());
+            job.setErrorMessage(e.getMessage());
+            System.err.println("Print job " + jobId + " failed: " + e.getMessage());
+        } finally {
+            job.setCompletedAt(LocalDateTime.now());
+            printJobRepository.save(job);
+            endProgress(jobId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        List<PrintJob> interrupted = printJobRepository
+                .findByStatusIn(EnumSet.of(PrintJobStatus.QUEUED, PrintJobStatus.RUNNING));
+        failInterrupted(interrupted, "Interrupted by a server restart, please submit the job again.");
+        printJobRepository.saveAll(interrupted);
+    }
+
+    // Hourly: remove spool files of completed jobs past the retention period
+    @Scheduled(cron = "0 0 * * * ?")
+    public void purgeExpiredJobs() {
+        List<PrintJob> expired = printJobRepository.findByStatusAndCompletedAtBefore(PrintJobStatus.COMPLETED,
+                LocalDateTime.now().minusHours(retentionHours));
+        expire(expired);
+        printJobRepository.saveAll(expired);
+        if (!expired.isEmpty()) {
+            System.out.println("Purged " + expired.size() + " expired print job(s).");
+        }
+    }
+
+    private PrintJob findJob(Long jobId) {
+        return printJobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Print job not found"));
+    }
+
+    private List<Long> parseIds(String chequeIds) {
+        return Arrays.stream(chequeIds.split(",")).map(Long::valueOf).collect(Collectors.toList());
+    }
+
+    @Override
+    protected String spoolFileName(PrintJob job) {
+        return "job-" + job.getId() + ".pdf";
+    }
+
+    @Override
+    protected void markFailed(PrintJob job) {
+        job.setStatus(PrintJobStatus.FAILED);
+    }
+
+    @Override
+    protected void markExpired(PrintJob job) {
+        job.setStatus(PrintJobStatus.EXPIRED);
+    }
+
+    private PrintJobDTO convertToDTO(PrintJob job) {
+        Long live = liveProgress(job.getId());
+        int rendered = live != null ? live.intValue()
+                : job.getRenderedCheques() != null ? job.getRenderedCheques() : 0;
+        int total = job.getTotalCheques();
+        return PrintJobDTO.builder()
+                .id(job.getId())
+                .templateId(job.getTemplateId())
+                .status(job.getStatus())
+                .totalCheques(total)
+                .renderedCheques(rendered)
+                .progressPercent(job.getStatus() == PrintJobStatus.COMPLETED ? 100
+                        : total > 0 ? (int) (rendered * 100L / total) : 0)
+                .fileSize(job.getFileSize())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
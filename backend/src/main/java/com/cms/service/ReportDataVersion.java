@@ -0,0 +1,116 @@
+package com.cms.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A counter per company that moves whenever one of its cheques, or a name shown
+ * in its reports (company, vendor, customer, account, bank), is written, so a
+ * cached report is known to be current if the counter has not moved since it was
+ * computed. Reports across all companies follow a global counter that moves on
+ * every write.
+ * <p>
+ * Counters move after commit, once per transaction: a report read in between
+ * still sees the old data and is cached under the old version.
+ * <p>
+ * Counters are kept per instance and only see writes made through it. A write
+ * through another instance is picked up here once the cached entry's TTL runs out.
+ */
+@Component
+public class ReportDataVersion {
+
+    private static final String COMPANY_OF_BOOK = "SELECT a.company_id FROM cheque_books b "
+            + "JOIN bank_accounts a ON a.id = b.account_id WHERE b.id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Pending-change marker for data shown in every company's reports
+    private static final Long ALL_COMPANIES = -1L;
+
+    private final AtomicLong global = new AtomicLong();
+    private final AtomicLong shared = new AtomicLong();
+    private final Map<Long, AtomicLong> byCompany = new ConcurrentHashMap<>();
+    // A book never moves to another account, so this is never invalidated
+    private final Map<Long, Long> companyByBook = new ConcurrentHashMap<>();
+
+    public long current(Long companyId) {
+        // Both counters only grow, so their sum moves whenever either does
+        return companyId != null ? counter(companyId).get() + shared.get() : global.get();
+    }
+
+    /** Records that cheques of the book were inserted, changed or deleted. */
+    public void chequesChanged(Long chequeBookId) {
+        // Resolved now: by commit time the book may be gone
+        changed(companyOf(chequeBookId));
+    }
+
+    /** Records that the company or one of its vendors, customers or accounts was changed. */
+    public void companyDataChanged(Long companyId) {
+        changed(companyId);
+    }
+
+    /** Records that a bank was changed; bank names appear in every company's reports. */
+    public void bankDataChanged() {
+        changed(ALL_COMPANIES);
+    }
+
+    private void changed(Long companyId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(companyId != null ? Set.of(companyId) : Set.of());
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Set<Long> companies = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (companies == null) {
+            Set<Long> changed = new HashSet<>();
+            TransactionSynchronizationManager.bindResource(this, changed);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ReportDataVersion.this);
+                    if (status == STATUS_COMMITTED) {
+                        bump(changed);
+                    }
+                }
+            });
+            companies = changed;
+        }
+        if (companyId != null) {
+            companies.add(companyId);
+        }
+    }
+
+    private void bump(Set<Long> companyIds) {
+        companyIds.forEach(companyId -> (ALL_COMPANIES.equals(companyId) ? shared : counter(companyId))
+                .incrementAndGet());
+        global.incrementAndGet();
+    }
+
+    private Long companyOf(Long chequeBookId) {
+        Long companyId = companyByBook.get(chequeBookId);
+        if (companyId == null) {
+            try {
+                companyId = jdbcTemplate.queryForObject(COMPANY_OF_BOOK, Long.class, chequeBookId);
+            } catch (EmptyResultDataAccessException e) {
+                return null; // The global counter still moves
+            }
+            companyByBook.put(chequeBookId, companyId);
+        }
+        return companyId;
+    }
+
+    private AtomicLong counter(Long companyId) {
+        return byCompany.computeIfAbsent(companyId, id -> new AtomicLong());
+    }
+}
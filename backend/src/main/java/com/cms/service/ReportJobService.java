@@ -0,0 +1,264 @@
+package com.cms.service;
+
+import com.cms.dto.ReportFilterDTO;
+import com.cms.dto.ReportJobDTO;
+import com.cms.model.ReportFormat;
+import com.cms.model.ReportJob;
+import com.cms.model.ReportJobStatus;
+import com.cms.repository.ReportJobRepository;
+import com.cms.security.CurrentUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Report exports as background jobs. The filter is stored with the job, a small
+ * pool writes the report into a spool file, and clients poll for progress and
+ * download the file until it expires. Queued jobs start in order, except that a
+ * company never has more than {@code jobs-per-company} reports running, so one
+ * company's month-end run cannot take every worker.
+ */
+@Service
+public class ReportJobService extends SpoolJobService<ReportJob> {
+
+    // Jobs for reports across all companies share one concurrency slot key
+    private static final Long ALL_COMPANIES = 0L;
+
+    @Autowired
+    private ReportJobRepository reportJobRepository;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.reports.spool-dir:uploads/report-spool}")
+    private String spoolDir;
+
+    @Value("${app.reports.job-threads:2}")
+    private int jobThreads;
+
+    @Value("${app.reports.jobs-per-company:1}")
+    private int jobsPerCompany;
+
+    @Value("${app.reports.job-queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${app.reports.job-retention-hours:24}")
+    private long retentionHours;
+
+    // Dispatch state, guarded by this
+    private final Deque<QueuedJob> pending = new ArrayDeque<>();
+    private final Map<Long, Integer> runningPerCompany = new HashMap<>();
+    private int running;
+
+    @PostConstruct
+    void start() throws IOException {
+        // Never queues: dispatch() hands over at most jobThreads jobs at a time
+        startSpool(spoolDir, "report-job", jobThreads, new LinkedBlockingQueue<>());
+    }
+
+    public ReportJobDTO submit(ReportFilterDTO filter, ReportFormat format) {
+        String filterJson;
+        try {
+            filterJson = objectMapper.writeValueAsString(filter);
+        } catch (Exception e) {
+            throw new RuntimeException("Invalid report filter", e);
+        }
+        ReportJob job = reportJobRepository.save(ReportJob.builder()
+                .format(format)
+                .filter(filterJson)
+                .reportType(filter.getReportType())
+                .companyId(filter.getCompanyId())
+                .requestedBy(CurrentUser.getId())
+                .build());
+
+        // The worker runs as the submitting user
+        Long jobId = job.getId();
+        QueuedJob queued = new QueuedJob(job.getCompanyId() != null ? job.getCompanyId() : ALL_COMPANIES,
+                new DelegatingSecurityContextRunnable(() -> run(jobId)));
+        synchronized (this) {
+            if (pending.size() >= queueCapacity) {
+                job.setStatus(ReportJobStatus.FAILED);
+                job.setErrorMessage("Report queue is full.");
+                reportJobRepository.save(job);
+                throw new RuntimeException("Report queue is full, please try again later.");
+            }
+            pending.add(queued);
+        }
+        dispatch();
+        return convertToDTO(job);
+    }
+
+    public ReportJobDTO getJob(Long jobId) {
+        return convertToDTO(checkAccess(findJob(jobId), "Report job not found"));
+    }
+
+    /** The finished spool file of a completed job. */
+    public Path getJobFile(Long jobId) {
+        ReportJob job = checkAccess(findJob(jobId), "Report job not found");
+        if (job.getStatus() == ReportJobStatus.EXPIRED) {
+            throw new RuntimeException("Report has expired, please run it again.");
+        }
+        if (job.getStatus() != ReportJobStatus.COMPLETED) {
+            throw new RuntimeException("Report is not ready yet.");
+        }
+        return spoolFile(job, "Report file not found.");
+    }
+
+    // Starts queued jobs, oldest first, while workers and the company's slots allow
+    private synchronized void dispatch() {
+        Iterator<QueuedJob> it = pending.iterator();
+        while (running < jobThreads && it.hasNext()) {
+            QueuedJob job = it.next();
+            if (runningPerCompany.getOrDefault(job.companyKey, 0) >= jobsPerCompany) {
+                continue;
+            }
+            it.remove();
+            running++;
+            runningPerCompany.merge(job.companyKey, 1, Integer::sum);
+            jobPool.execute(() -> {
+                try {
+                    job.task.run();
+                } finally {
+                    finished(job);
+                }
+            });
+        }
+    }
+
+    private void finished(QueuedJob job) {
+        synchronized (this) {
+            running--;
+            runningPerCompany.computeIfPresent(job.companyKey, (company, count) -> count > 1 ? count - 1 : null);
+        }
+        dispatch();
+    }
+
+    private void run(Long jobId) {
+        ReportJob job = reportJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        job.setStatus(ReportJobStatus.RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        reportJobRepository.save(job);
+
+        AtomicLong written = startProgress(jobId);
+        try {
+            ReportFilterDTO filter = objectMapper.readValue(job.getFilter(), ReportFilterDTO.class);
+            job.setTotalRows(reportService.countReportRows(filter));
+            reportJobRepository.save(job);
+
+            Path target = writeSpoolFile(job,
+                    out -> reportService.export(filter, job.getFormat(), out, written::set));
+
+            job.setStatus(ReportJobStatus.COMPLETED);
+            job.setSpoolPath(target.toString());
+            job.setFileSize(Files.size(target));
+            job.setExpiresAt(LocalDateTime.now().plusHours(retentionHours));
+        } catch (Exception e) {
+            job.setStatus(ReportJobStatus.FAILED);
+            job.setErrorMessage(e.getMessage());
+            System.err.println("Report job " + jobId + " failed: " + e.getMessage());
+        } finally {
+            job.setWrittenRows(written.get());
+            job.setCompletedAt(LocalDateTime.now());
+            reportJobRepository.save(job);
+            endProgress(jobId);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        List<ReportJob> interrupted = reportJobRepository
+                .findByStatusIn(EnumSet.of(ReportJobStatus.QUEUED, ReportJobStatus.RUNNING));
+        failInterrupted(interrupted, "Interrupted by a server restart, please run the report again.");
+        reportJobRepository.saveAll(interrupted);
+    }
+
+    // Hourly: remove report files past their expiry
+    @Scheduled(cron = "0 30 * * * ?")
+    public void purgeExpiredJobs() {
+        List<ReportJob> expired = reportJobRepository.findByStatusAndExpiresAtBefore(ReportJobStatus.COMPLETED,
+                LocalDateTime.now());
+        expire(expired);
+        reportJobRepository.saveAll(expired);
+        if (!expired.isEmpty()) {
+            System.out.println("Purged " + expired.size() + " expired report job(s).");
+        }
+    }
+
+    private ReportJob findJob(Long jobId) {
+        return reportJobRepository.findById(jobId)
+                .orElseThrow(() -> new RuntimeException("Report job not found"));
+    }
+
+    @Override
+    protected String spoolFileName(ReportJob job) {
+        return "report-" + job.getId() + "." + job.getFormat().getExtension();
+    }
+
+    @Override
+    protected void markFailed(ReportJob job) {
+        job.setStatus(ReportJobStatus.FAILED);
+    }
+
+    @Override
+    protected void markExpired(ReportJob job) {
+        job.setStatus(ReportJobStatus.EXPIRED);
+    }
+
+    private ReportJobDTO convertToDTO(ReportJob job) {
+        Long live = liveProgress(job.getId());
+        long written = live != null ? live : job.getWrittenRows() != null ? job.getWrittenRows() : 0;
+        Long total = job.getTotalRows();
+        return ReportJobDTO.builder()
+                .id(job.getId())
+                .format(job.getFormat())
+                .reportType(job.getReportType())
+                .status(job.getStatus())
+                .totalRows(total)
+                .writtenRows(written)
+                .progressPercent(job.getStatus() == ReportJobStatus.COMPLETED ? 100
+                        : total != null && total > 0 ? (int) Math.min(99, written * 100 / total) : 0)
+                .fileSize(job.getFileSize())
+                .errorMessage(job.getErrorMessage())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .expiresAt(job.getExpiresAt())
+                .build();
+    }
+
+    private static final class QueuedJob {
+        private final Long companyKey;
+        private final Runnable task;
+
+        private QueuedJob(Long companyKey, Runnable task) {
+            this.companyKey = companyKey;
+            this.task = task;
+        }
+    }
+}
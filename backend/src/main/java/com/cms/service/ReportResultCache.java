@@ -0,0 +1,156 @@
+package com.cms.service;
+
+import com.cms.dto.ReportCacheStatsDTO;
+import com.cms.dto.ReportFilterDTO;
+import com.cms.dto.ReportRowDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Report rows by normalized filter, per instance. An entry is served only while
+ * its company's {@link ReportDataVersion} is unchanged and it is younger than the
+ * TTL: a hit reflects every committed write made through this instance, and
+ * writes made through other instances at most the TTL later. Bounded by entry
+ * count and by the total number of cached rows, least recently used evicted first.
+ */
+@Component
+public class ReportResultCache {
+
+    @Autowired
+    private ReportDataVersion reportDataVersion;
+
+    @Value("${app.reports.cache.max-entries:100}")
+    private int maxEntries;
+
+    @Value("${app.reports.cache.max-rows:200000}")
+    private long maxRows;
+
+    @Value("${app.reports.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    // Access order, eldest first; guarded by itself
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedRows;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /** The cached rows for the filter, or the loader's rows, cached if small enough. */
+    public List<ReportRowDTO> get(ReportFilterDTO filter, Supplier<List<ReportRowDTO>> loader) {
+        String key = key(filter);
+        // Read before loading: a write committed during the query moves the version on
+        long version = reportDataVersion.current(filter.getCompanyId());
+        List<ReportRowDTO> rows = lookup(key, version, true);
+        if (rows != null) {
+            return rows;
+        }
+        rows = Collections.unmodifiableList(loader.get());
+        put(key, new Entry(version, System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds), rows));
+        return rows;
+    }
+
+    /**
+     * The cached rows for the filter, or {@code null}; never loads. Only hits are
+     * counted: after a miss the caller may still load through {@link #get}, which
+     * counts it.
+     */
+    public List<ReportRowDTO> getIfPresent(ReportFilterDTO filter) {
+        return lookup(key(filter), reportDataVersion.current(filter.getCompanyId()), false);
+    }
+
+    public ReportCacheStatsDTO stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        synchronized (entries) {
+            return ReportCacheStatsDTO.builder()
+                    .hits(hitCount)
+                    .misses(missCount)
+                    .hitRate(hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0)
+                    .evictions(evictions.get())
+                    .expirations(expirations.get())
+                    .entries(entries.size())
+                    .cachedRows(cachedRows)
+                    .build();
+        }
+    }
+
+    private List<ReportRowDTO> lookup(String key, long version, boolean countMiss) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && (entry.version != version || System.nanoTime() - entry.expiresAt > 0)) {
+                remove(key, entry);
+                expirations.incrementAndGet();
+                entry = null;
+            }
+            if (entry == null) {
+                if (countMiss) {
+                    misses.incrementAndGet();
+                }
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.rows;
+        }
+    }
+
+    private void put(String key, Entry entry) {
+        // One report may use at most a quarter of the row budget, so a single huge
+        // register cannot flush everything else
+        if (entry.rows.size() > maxRows / 4) {
+            return;
+        }
+        synchronized (entries) {
+            Entry previous = entries.put(key, entry);
+            cachedRows += entry.rows.size() - (previous != null ? previous.rows.size() : 0);
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while ((entries.size() > maxEntries || cachedRows > maxRows) && eldest.hasNext()) {
+                Map.Entry<String, Entry> evicted = eldest.next();
+                eldest.remove();
+                cachedRows -= evicted.getValue().rows.size();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    private void remove(String key, Entry entry) {
+        entries.remove(key);
+        cachedRows -= entry.rows.size();
+    }
+
+    // Equal filters spelled differently share an entry; today's date is part of the key
+    // because OVERDUE depends on it
+    static String key(ReportFilterDTO filter) {
+        return filter.getCompanyId() + "|" + filter.getBankId() + "|" + normalize(filter.getStatus()) + "|"
+                + filter.getUserId() + "|" + filter.getStartDate() + "|" + filter.getEndDate() + "|"
+                + normalize(filter.getReportType()) + "|" + LocalDate.now();
+    }
+
+    private static String normalize(String value) {
+        return value == null || value.isBlank() ? "" : value.trim().toUpperCase();
+    }
+
+    private static final class Entry {
+        private final long version;
+        private final long expiresAt; // System.nanoTime()
+        private final List<ReportRowDTO> rows;
+
+        private Entry(long version, long expiresAt, List<ReportRowDTO> rows) {
+            this.version = version;
+            this.expiresAt = expiresAt;
+            this.rows = rows;
+        }
+    }
+}
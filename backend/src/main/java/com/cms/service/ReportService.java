@@ -1,63 +1,97 @@
 
 package com.cms.service;
 
+import com.cms.dto.ReportCacheStatsDTO;
 import com.cms.dto.ReportFilterDTO;
-import com.cms.model.Cheque;
-import com.cms.repository.ChequeRepository;
+import com.cms.dto.ReportRowDTO;
+import com.cms.model.ReportFormat;
+import com.cms.repository.ChequeReportRepository;
 import com.lowagie.text.Document;
 import com.lowagie.text.PageSize;
 import com.lowagie.text.Paragraph;
 import com.lowagie.text.pdf.PdfPTable;
 import com.lowagie.text.pdf.PdfWriter;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 @Service
 public class ReportService {
 
-    private final ChequeRepository chequeRepository;
+    private static final int EXCEL_ROW_WINDOW = 100;
 
-    public ReportService(ChequeRepository chequeRepository) {
-        this.chequeRepository = chequeRepository;
+    private static final int PDF_FLUSH_ROWS = 50;
+
+    private final ChequeReportRepository chequeReportRepository;
+
+    private final ReportResultCache reportResultCache;
+
+    public ReportService(ChequeReportRepository chequeReportRepository, ReportResultCache reportResultCache) {
+        this.chequeReportRepository = chequeReportRepository;
+        this.reportResultCache = reportResultCache;
+    }
+
+    // Filtering, joins and projection all happen in the database; repeats of the
+    // same report are served from the cache until a cheque of the company changes
+    public List<ReportRowDTO> generateReportData(ReportFilterDTO filter) {
+        return reportResultCache.get(filter, () -> chequeReportRepository.findRows(filter));
+    }
+
+    public ReportCacheStatsDTO getCacheStats() {
+        return reportResultCache.stats();
     }
 
-    public List<Cheque> generateReportData(ReportFilterDTO filter) {
-        return chequeRepository.findAll().stream()
-                .filter(c -> {
-                    if (filter.getCompanyId() != null) {
-                        try {
-                            return c.getChequeBook().getAccount().getCompany().getId().equals(filter.getCompanyId());
-                        } catch (NullPointerException e) {
-                            return false;
-                        }
-                    }
-                    return true;
-                })
-                .filter(c -> {
-                    if (filter.getBankId() != null) {
-                        try {
-                            return c.getChequeBook().getAccount().getBranch().getBank().getId()
-                                    .equals(filter.getBankId());
-                        } catch (NullPointerException e) {
-                            return false;
-                        }
-                    }
-                    return true;
-                })
-                .filter(c -> filter.getStatus() == null || filter.getStatus().isEmpty()
-                        || c.getStatus().name().equalsIgnoreCase(filter.getStatus()))
-                .collect(Collectors.toList());
+    public long countReportRows(ReportFilterDTO filter) {
+        return chequeReportRepository.countRows(filter);
     }
 
-    public byte[] exportToPdf(List<Cheque> data) {
-        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Document document = new Document(PageSize.A4.rotate());
-            PdfWriter.getInstance(document, out);
+    /**
+     * Streams the filtered report in the given format, calling {@code progress}
+     * with the number of rows written so far. Used by report jobs.
+     */
+    @Transactional(readOnly = true)
+    public void export(ReportFilterDTO filter, ReportFormat format, OutputStream out, LongConsumer progress) {
+        long[] written = { 0 };
+        try (Stream<ReportRowDTO> rows = rows(filter)) {
+            Stream<ReportRowDTO> counted = rows.peek(row -> progress.accept(++written[0]));
+            switch (format) {
+                case PDF:
+                    exportToPdf(counted, out);
+                    break;
+                case EXCEL:
+                    exportToExcel(counted, out);
+                    break;
+                case CSV:
+                    exportToCsv(counted, out, false);
+                    break;
+                default:
+                    throw new RuntimeException("Unsupported report format: " + format);
+            }
+        }
+    }
+
+    /** Streams the filtered report as PDF, read through a cursor like the other exports. */
+    @Transactional(readOnly = true)
+    public void exportToPdf(ReportFilterDTO filter, OutputStream out) {
+        try (Stream<ReportRowDTO> rows = rows(filter)) {
+            exportToPdf(rows, out);
+        }
+    }
+
+    // The table is handed to the document every PDF_FLUSH_ROWS rows: OpenPDF lays out
+    // and writes the finished pages and drops those rows, so only the current page's
+    // rows are held and the first pages reach the client while the query still runs
+    public void exportToPdf(Stream<ReportRowDTO> data, OutputStream out) {
+        Document document = new Document(PageSize.A4.rotate());
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false); // The response stream belongs to the container
             document.open();
 
             document.add(new Paragraph("Cheque Report"));
@@ -66,6 +100,8 @@ public class ReportService {
 
             PdfPTable table = new PdfPTable(6);
             table.setWidthPercentage(100);
+            table.setHeaderRows(1); // Repeated at the top of every page
+            table.setComplete(false);
 
             table.addCell("Cheque No");
             table.addCell("Payee");
@@ -74,31 +110,44 @@ public class ReportService {
             table.addCell("Status");
             table.addCell("Bank");
 
-            for (Cheque c : data) {
+            int[] rows = { 0 };
+            data.forEach(c -> {
                 table.addCell(String.valueOf(c.getChequeNumber()));
                 table.addCell(c.getPayeeName() != null ? c.getPayeeName() : "");
                 table.addCell(c.getAmount() != null ? c.getAmount().toString() : "");
                 table.addCell(c.getChequeDate() != null ? c.getChequeDate().toString() : "");
                 table.addCell(c.getStatus().name());
 
-                String bankName = "";
-                try {
-                    bankName = c.getChequeBook().getAccount().getBranch().getBank().getName();
-                } catch (Exception e) {
-                    /* ignore */ }
+                String bankName = c.getBankName() != null ? c.getBankName() : "";
                 table.addCell(bankName);
-            }
 
+                if (++rows[0] % PDF_FLUSH_ROWS == 0) {
+                    document.add(table);
+                }
+            });
+
+            table.setComplete(true);
             document.add(table);
             document.close();
-            return out.toByteArray();
         } catch (Exception e) {
             throw new RuntimeException("PDF Generation Error", e);
         }
     }
 
-    public byte[] exportToExcel(List<Cheque> data) {
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+    /** Streams the filtered report as .xlsx; the cursor and the transaction live as long as the write. */
+    @Transactional(readOnly = true)
+    public void exportToExcel(ReportFilterDTO filter, OutputStream out) {
+        try (Stream<ReportRowDTO> rows = rows(filter)) {
+            exportToExcel(rows, out);
+        }
+    }
+
+    // Only the last EXCEL_ROW_WINDOW rows stay on the heap; older rows are flushed to a
+    // gzipped temp file, so memory does not grow with the row count
+    public void exportToExcel(Stream<ReportRowDTO> data, OutputStream out) {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(EXCEL_ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
             Sheet sheet = workbook.createSheet("Cheques");
 
             Row header = sheet.createRow(0);
@@ -109,47 +158,56 @@ public class ReportService {
             header.createCell(4).setCellValue("Status");
             header.createCell(5).setCellValue("Bank");
 
-            int rowIdx = 1;
-            for (Cheque c : data) {
-                Row row = sheet.createRow(rowIdx++);
+            int[] rowIdx = { 1 };
+            data.forEach(c -> {
+                Row row = sheet.createRow(rowIdx[0]++);
                 row.createCell(0).setCellValue(c.getChequeNumber());
                 row.createCell(1).setCellValue(c.getPayeeName() != null ? c.getPayeeName() : "");
                 row.createCell(2).setCellValue(c.getAmount() != null ? c.getAmount().doubleValue() : 0);
                 row.createCell(3).setCellValue(c.getChequeDate() != null ? c.getChequeDate().toString() : "");
                 row.createCell(4).setCellValue(c.getStatus().name());
 
-                String bankName = "";
-                try {
-                    bankName = c.getChequeBook().getAccount().getBranch().getBank().getName();
-                } catch (Exception e) {
-                    /* ignore */ }
+                String bankName = c.getBankName() != null ? c.getBankName() : "";
                 row.createCell(5).setCellValue(bankName);
-            }
+            });
 
             workbook.write(out);
-            return out.toByteArray();
         } catch (Exception e) {
             throw new RuntimeException("Excel Generation Error", e);
+        } finally {
+            workbook.dispose(); // Deletes the temp files
+        }
+    }
+
+    /** Streams the filtered report as CSV, read through a cursor like the Excel export. */
+    @Transactional(readOnly = true)
+    public void exportToCsv(ReportFilterDTO filter, OutputStream out, boolean gzip) {
+        try (Stream<ReportRowDTO> rows = rows(filter)) {
+            exportToCsv(rows, out, gzip);
         }
     }
 
-    public byte[] exportToCsv(List<Cheque> data) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("Cheque No,Payee,Amount,Date,Status,Bank\n");
-        for (Cheque c : data) {
-            sb.append(c.getChequeNumber()).append(",");
-            sb.append("\"").append(c.getPayeeName() != null ? c.getPayeeName() : "").append("\",");
-            sb.append(c.getAmount() != null ? c.getAmount() : "").append(",");
-            sb.append(c.getChequeDate() != null ? c.getChequeDate() : "").append(",");
-            sb.append(c.getStatus().name()).append(",");
-
-            String bankName = "";
-            try {
-                bankName = c.getChequeBook().getAccount().getBranch().getBank().getName();
-            } catch (Exception e) {
-                /* ignore */ }
-            sb.append("\"").append(bankName).append("\"\n");
+    public void exportToCsv(Stream<ReportRowDTO> data, OutputStream out, boolean gzip) {
+        try (CsvWriter csv = new CsvWriter(out, gzip)) {
+            csv.field("Cheque No").field("Payee").field("Amount").field("Date").field("Status").field("Bank")
+                    .endRecord();
+            csv.flush(); // The client sees the download start before the first row is read
+
+            data.forEach(c -> csv
+                    .field(c.getChequeNumber())
+                    .field(c.getPayeeName())
+                    .field(c.getAmount() != null ? c.getAmount().toPlainString() : null)
+                    .field(c.getChequeDate())
+                    .field(c.getStatus().name())
+                    .field(c.getBankName())
+                    .endRecord());
         }
-        return sb.toString().getBytes();
+    }
+
+    // An export right after viewing the same report reuses the cached rows; otherwise
+    // rows come through a cursor
+    private Stream<ReportRowDTO> rows(ReportFilterDTO filter) {
+        List<ReportRowDTO> cached = reportResultCache.getIfPresent(filter);
+        return cached != null ? cached.stream() : chequeReportRepository.streamRows(filter);
     }
 }
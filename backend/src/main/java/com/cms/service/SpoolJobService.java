@@ -0,0 +1,155 @@
+package com.cms.service;
+
+import com.cms.model.Role;
+import com.cms.model.SpoolJob;
+import com.cms.repository.UserCompanyRoleRepository;
+import com.cms.security.CurrentUser;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lifecycle shared by the services that run jobs in the background into spool
+ * files: the worker pool, live progress, writing, failing and expiring spool
+ * files, and who may see a job.
+ */
+public abstract class SpoolJobService<J extends SpoolJob> {
+
+    private static final String PART_SUFFIX = ".part";
+
+    @Autowired
+    private UserCompanyRoleRepository userCompanyRoleRepository;
+
+    protected Path spoolLocation;
+
+    protected ThreadPoolExecutor jobPool;
+
+    // Live progress of running jobs; only persisted when a job finishes
+    private final Map<Long, AtomicLong> progress = new ConcurrentHashMap<>();
+
+    /** Name of the job's spool file inside the spool directory. */
+    protected abstract String spoolFileName(J job);
+
+    protected abstract void markFailed(J job);
+
+    protected abstract void markExpired(J job);
+
+    protected void startSpool(String spoolDir, String threadName, int threads, BlockingQueue<Runnable> queue)
+            throws IOException {
+        spoolLocation = Paths.get(spoolDir).toAbsolutePath().normalize();
+        Files.createDirectories(spoolLocation);
+
+        AtomicInteger counter = new AtomicInteger();
+        jobPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, queue, r -> {
+            Thread thread = new Thread(r, threadName + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        jobPool.shutdownNow();
+    }
+
+    protected AtomicLong startProgress(Long jobId) {
+        AtomicLong done = new AtomicLong();
+        progress.put(jobId, done);
+        return done;
+    }
+
+    /** Progress of a running job, or {@code null} once it has finished. */
+    protected Long liveProgress(Long jobId) {
+        AtomicLong done = progress.get(jobId);
+        return done != null ? done.get() : null;
+    }
+
+    protected void endProgress(Long jobId) {
+        progress.remove(jobId);
+    }
+
+    /**
+     * Writes the job's spool file. Output goes to a .part file that is moved into
+     * place once complete, so a download never sees a partial file.
+     */
+    protected Path writeSpoolFile(J job, SpoolWriter writer) throws Exception {
+        Path target = spoolLocation.resolve(spoolFileName(job));
+        Path part = spoolLocation.resolve(spoolFileName(job) + PART_SUFFIX);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(part))) {
+                writer.write(out);
+            }
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (Exception e) {
+            deleteQuietly(part);
+            throw e;
+        }
+        return target;
+    }
+
+    /** Jobs that were queued or running when the server stopped will never finish. */
+    protected void failInterrupted(List<J> interrupted, String message) {
+        for (J job : interrupted) {
+            deleteQuietly(spoolLocation.resolve(spoolFileName(job) + PART_SUFFIX));
+            markFailed(job);
+            job.setErrorMessage(message);
+            job.setCompletedAt(LocalDateTime.now());
+        }
+    }
+
+    protected void expire(List<J> expired) {
+        for (J job : expired) {
+            deleteQuietly(Paths.get(job.getSpoolPath()));
+            markExpired(job);
+            job.setSpoolPath(null);
+        }
+    }
+
+    /** The job if the current user submitted it or is an admin, otherwise as if it did not exist. */
+    protected J checkAccess(J job, String notFoundMessage) {
+        Long userId = CurrentUser.getId();
+        if (userId == null || (!userId.equals(job.getRequestedBy())
+                && !userCompanyRoleRepository.existsByUser_IdAndRole(userId, Role.ADMIN))) {
+            throw new RuntimeException(notFoundMessage);
+        }
+        return job;
+    }
+
+    /** The spool file of a completed job, which must still be on disk. */
+    protected Path spoolFile(J job, String notFoundMessage) {
+        Path file = Paths.get(job.getSpoolPath());
+        if (!Files.exists(file)) {
+            throw new RuntimeException(notFoundMessage);
+        }
+        return file;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("Could not delete spool file " + file + ": " + e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    protected interface SpoolWriter {
+        void write(OutputStream out) throws Exception;
+    }
+}
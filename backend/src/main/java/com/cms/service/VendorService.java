@@ -22,6 +22,9 @@ public class VendorService {
     @Autowired
     private CompanyRepository companyRepository;
 
+    @Autowired
+    private ReportDataVersion reportDataVersion;
+
     public List<VendorDTO> getVendorsByCompany(Long companyId) {
         return vendorRepository.findByCompanyId(companyId).stream()
                 .map(this::convertToDTO)
@@ -64,6 +67,7 @@ public class VendorService {
         // existingVendor.setCompany(...)
 
         existingVendor = vendorRepository.save(existingVendor);
+        reportDataVersion.companyDataChanged(existingVendor.getCompany().getId()); // Vendor names are in reports
         return convertToDTO(existingVendor);
     }
 
@@ -0,0 +1,188 @@
+package com.cms.service;
+
+import com.cms.service.AmountInWords.Grouping;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AmountInWordsTest {
+
+    private static final String[] UNITS = {
+            "", "One", "Two", "Three", "Four", "Five", "Six", "Seven", "Eight", "Nine", "Ten",
+            "Eleven", "Twelve", "Thirteen", "Fourteen", "Fifteen", "Sixteen", "Seventeen", "Eighteen", "Nineteen"
+    };
+    private static final String[] TENS = {
+            "", "", "Twenty", "Thirty", "Forty", "Fifty", "Sixty", "Seventy", "Eighty", "Ninety"
+    };
+
+    // Largest whole amount whose paisa/cents still fit in a long
+    private static final long MAX_MAJOR = Long.MAX_VALUE / 100;
+
+    @Test
+    void everyAmountBelowTwoLakhMatchesReference() {
+        for (long n = 0; n < 200_000; n++) {
+            assertMatchesReference(n, Grouping.INDIAN);
+            assertMatchesReference(n, Grouping.INTERNATIONAL);
+        }
+    }
+
+    @Test
+    void sampledAmountsOfEveryMagnitudeMatchReference() {
+        Random random = new Random(42);
+        for (long power = 1_000; power > 0 && power <= MAX_MAJOR; power *= 10) {
+            for (long n : new long[] { power - 1, power, power + 1 }) {
+                assertMatchesReference(n, Grouping.INDIAN);
+                assertMatchesReference(n, Grouping.INTERNATIONAL);
+            }
+            long span = Math.min(power * 9, MAX_MAJOR - power);
+            for (int i = 0; i < 2_000; i++) {
+                long n = power + Math.floorMod(random.nextLong(), span);
+                assertMatchesReference(n, Grouping.INDIAN);
+                assertMatchesReference(n, Grouping.INTERNATIONAL);
+            }
+        }
+        assertMatchesReference(MAX_MAJOR, Grouping.INDIAN);
+        assertMatchesReference(MAX_MAJOR, Grouping.INTERNATIONAL);
+    }
+
+    @Test
+    void lakhAndCroreBoundaries() {
+        assertThat(words("99999", "BDT")).isEqualTo("Ninety Nine Thousand Nine Hundred Ninety Nine Taka Only");
+        assertThat(words("100000", "BDT")).isEqualTo("One Lakh Taka Only");
+        assertThat(words("100001", "BDT")).isEqualTo("One Lakh One Taka Only");
+        assertThat(words("120050.50", "BDT")).isEqualTo("One Lakh Twenty Thousand Fifty Taka and Fifty Paisa Only");
+        assertThat(words("9999999", "BDT"))
+                .isEqualTo("Ninety Nine Lakh Ninety Nine Thousand Nine Hundred Ninety Nine Taka Only");
+        assertThat(words("10000000", "BDT")).isEqualTo("One Crore Taka Only");
+        assertThat(words("10000001", "INR")).isEqualTo("One Crore One Rupees Only");
+        assertThat(words("990000000", "BDT")).isEqualTo("Ninety Nine Crore Taka Only");
+        assertThat(words("1000000000000", "BDT")).isEqualTo("One Lakh Crore Taka Only");
+        assertThat(words("100000000000000", "BDT")).isEqualTo("One Crore Crore Taka Only");
+        assertThat(words("100000", "USD")).isEqualTo("One Hundred Thousand Dollars Only");
+        assertThat(words("10000000", "USD")).isEqualTo("Ten Million Dollars Only");
+    }
+
+    @Test
+    void fractionIsRoundedHalfUpToTwoPlaces() {
+        assertThat(words("1.994", "BDT")).isEqualTo("One Taka and Ninety Nine Paisa Only");
+        assertThat(words("1.995", "BDT")).isEqualTo("Two Taka Only");
+        assertThat(words("0.005", "BDT")).isEqualTo("Zero Taka and One Paisa Only");
+        assertThat(words("0.004", "BDT")).isEqualTo("Zero Taka Only");
+        assertThat(words("99999.999", "BDT")).isEqualTo("One Lakh Taka Only");
+        assertThat(words("0.01", "INR")).isEqualTo("Zero Rupees and One Paisa Only");
+        assertThat(words("0.02", "INR")).isEqualTo("Zero Rupees and Two Paise Only");
+        assertThat(words("10.5", "USD")).isEqualTo("Ten Dollars and Fifty Cents Only");
+    }
+
+    @Test
+    void zeroNullAndNegativeAmounts() {
+        assertThat(words("0", "BDT")).isEqualTo("Zero Taka Only");
+        assertThat(words("0.00", "USD")).isEqualTo("Zero Dollars Only");
+        assertThat(AmountInWords.toWords(null, "USD")).isEqualTo("Zero Dollars Only");
+        assertThat(words("-5.50", "BDT")).isEqualTo("Minus Five Taka and Fifty Paisa Only");
+        assertThat(words("-1", "USD")).isEqualTo("Minus One Dollar Only");
+        assertThat(words("-100000", "INR")).isEqualTo("Minus One Lakh Rupees Only");
+        assertThatThrownBy(() -> words("92233720368547758.08", "USD"))
+                .hasMessageContaining("too large");
+    }
+
+    @Test
+    void everyCurrencyInTheTable() {
+        // code, singular line, plural line
+        String[][] expected = {
+                { "BDT", "One Taka and One Paisa Only", "One Lakh Taka and Two Paisa Only" },
+                { "INR", "One Rupee and One Paisa Only", "One Lakh Rupees and Two Paise Only" },
+                { "PKR", "One Rupee and One Paisa Only", "One Lakh Rupees and Two Paisa Only" },
+                { "NPR", "One Rupee and One Paisa Only", "One Lakh Rupees and Two Paisa Only" },
+                { "LKR", "One Rupee and One Cent Only", "One Hundred Thousand Rupees and Two Cents Only" },
+                { "USD", "One Dollar and One Cent Only", "One Hundred Thousand Dollars and Two Cents Only" },
+                { "EUR", "One Euro and One Cent Only", "One Hundred Thousand Euros and Two Cents Only" },
+                { "GBP", "One Pound and One Penny Only", "One Hundred Thousand Pounds and Two Pence Only" },
+                { "AED", "One Dirham and One Fil Only", "One Hundred Thousand Dirhams and Two Fils Only" },
+                { "SAR", "One Riyal and One Halala Only", "One Hundred Thousand Riyals and Two Halalas Only" },
+        };
+        for (String[] currency : expected) {
+            assertThat(words("1.01", currency[0])).as(currency[0]).isEqualTo(currency[1]);
+            assertThat(words("100000.02", currency[0])).as(currency[0]).isEqualTo(currency[2]);
+            assertThat(words("1.01", " " + currency[0].toLowerCase() + " ")).as(currency[0]).isEqualTo(currency[1]);
+        }
+        // No currency: the wording of cheques printed before companies had one
+        assertThat(words("1000000", null)).isEqualTo("One Million Taka Only");
+        assertThat(words("1000000", " ")).isEqualTo("One Million Taka Only");
+        assertThat(words("2.02", "CHF")).isEqualTo("Two CHF and Two Cents Only");
+    }
+
+    @Test
+    void appendsAfterExistingText() {
+        StringBuilder out = new StringBuilder("Amount: ");
+        AmountInWords.append(new BigDecimal("12"), AmountInWords.currency("USD"), Grouping.INTERNATIONAL, out);
+        assertThat(out.toString()).isEqualTo("Amount: Twelve Dollars Only");
+    }
+
+    private static String words(String amount, String currency) {
+        return AmountInWords.toWords(new BigDecimal(amount), currency);
+    }
+
+    private static void assertMatchesReference(long major, Grouping grouping) {
+        AmountInWords.CurrencyWords currency = AmountInWords.currency(grouping == Grouping.INDIAN ? "BDT" : "USD");
+        String unit = grouping == Grouping.INDIAN ? "Taka" : major == 1 ? "Dollar" : "Dollars";
+        String number = major == 0 ? "Zero"
+                : grouping == Grouping.INDIAN ? indian(major) : international(major);
+        StringBuilder out = new StringBuilder();
+        AmountInWords.append(BigDecimal.valueOf(major), currency, grouping, out);
+        assertThat(out.toString()).as("%d %s", major, grouping).isEqualTo(number + " " + unit + " Only");
+    }
+
+    // Straightforward recursive spellings, independent of the builder-based implementation
+
+    private static String indian(long n) {
+        if (n >= 10_000_000) {
+            return join(indian(n / 10_000_000), "Crore", indian(n % 10_000_000));
+        }
+        if (n >= 100_000) {
+            return join(belowThousand(n / 100_000), "Lakh", indian(n % 100_000));
+        }
+        if (n >= 1_000) {
+            return join(belowThousand(n / 1_000), "Thousand", belowThousand(n % 1_000));
+        }
+        return belowThousand(n);
+    }
+
+    private static String international(long n) {
+        String[] names = { "Thousand", "Million", "Billion", "Trillion", "Quadrillion", "Quintillion" };
+        long scale = 1;
+        int index = -1;
+        while (index + 1 < names.length && n / scale >= 1_000) {
+            scale *= 1_000;
+            index++;
+        }
+        if (index < 0) {
+            return belowThousand(n);
+        }
+        return join(belowThousand(n / scale), names[index], international(n % scale));
+    }
+
+    private static String belowThousand(long n) {
+        if (n >= 100) {
+            return join(UNITS[(int) (n / 100)], "Hundred", belowThousand(n % 100));
+        }
+        if (n >= 20) {
+            return join(TENS[(int) (n / 10)], UNITS[(int) (n % 10)]);
+        }
+        return UNITS[(int) n];
+    }
+
+    private static String join(String... parts) {
+        StringBuilder out = new StringBuilder();
+        for (String part : parts) {
+            if (!part.isEmpty()) {
+                out.append(out.length() > 0 ? " " : "").append(part);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -10,8 +10,9 @@ export const getChequeBookById = async (id) => {
     return response.data;
 };
 
-export const getChequesByBook = async (id) => {
-    const response = await api.get(`/cheque-books/${id}/cheques`);
+// Returns one page: { items, nextAfter, totalMatching }. Pass nextAfter back as `after` for the next page.
+export const getChequesByBook = async (id, params = {}) => {
+    const response = await api.get(`/cheque-books/${id}/cheques`, { params });
     return response.data;
 };
 
@@ -25,6 +26,12 @@ export const updateChequeStatus = async (chequeId, status, remarks) => {
     return response.data;
 };
 
+// For leaves without a cheque row yet (virtual books), addressed by book and number
+export const updateLeafStatus = async (bookId, chequeNumber, status, remarks) => {
+    const response = await api.patch(`/cheque-books/${bookId}/leaves/${chequeNumber}/status`, { status, remarks });
+    return response.data;
+};
+
 export const createOutgoingCheque = async (chequeData) => {
     const response = await api.post('/cheque-books/outgoing', chequeData);
     return response.data;
@@ -1,6 +1,7 @@
 import api from './axiosConfig';
 
-export const getDashboardStats = async () => {
-    const response = await api.get('/dashboard/stats');
+// companyId is optional; without it the stats cover every company
+export const getDashboardStats = async (companyId) => {
+    const response = await api.get('/dashboard/stats', { params: { companyId } });
     return response.data;
 };
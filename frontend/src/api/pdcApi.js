@@ -1,7 +1,7 @@
 import api from './axiosConfig';
 
-export const getPdcExposure = async () => {
-    const response = await api.get('/pdc/exposure');
+export const getPdcExposure = async (companyId) => {
+    const response = await api.get('/pdc/exposure', { params: { companyId } });
     return response.data;
 };
 
@@ -19,3 +19,9 @@ export const getIncomingExposureDetails = async () => {
     const response = await api.get('/pdc/incoming-details');
     return response.data;
 };
+
+// granularity: DAY, WEEK or MONTH; companyId optional
+export const getCashFlowForecast = async ({ companyId, horizonDays = 90, granularity = 'DAY' } = {}) => {
+    const response = await api.get('/pdc/forecast', { params: { companyId, horizonDays, granularity } });
+    return response.data;
+};
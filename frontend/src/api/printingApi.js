@@ -1,7 +1,8 @@
 import api from './axiosConfig';
 
-export const getChequePdf = async (chequeId, templateId) => {
+export const getChequePdf = async (chequeId, templateId, background = false) => {
     const response = await api.get(`/printing/cheque/${chequeId}/template/${templateId}`, {
+        params: { background },
         responseType: 'blob', // Important for PDF download
     });
     return response.data;
@@ -13,3 +14,23 @@ export const getBatchChequePdf = async (chequeIds, templateId) => {
     });
     return response.data;
 };
+
+// Batch printing as a background job: submit, poll until COMPLETED, then download
+export const submitPrintJob = async (chequeIds, templateId, background = false) => {
+    const response = await api.post(`/printing/jobs/template/${templateId}`, chequeIds, {
+        params: { background },
+    });
+    return response.data;
+};
+
+export const getPrintJob = async (jobId) => {
+    const response = await api.get(`/printing/jobs/${jobId}`);
+    return response.data;
+};
+
+export const downloadPrintJob = async (jobId) => {
+    const response = await api.get(`/printing/jobs/${jobId}/file`, {
+        responseType: 'blob',
+    });
+    return response.data;
+};
@@ -12,3 +12,21 @@ export const exportReport = async (filters, type) => {
     });
     return response.data;
 };
+
+// Large exports as a background job: submit, poll until COMPLETED, then download
+export const submitReportJob = async (filters, type) => {
+    const response = await api.post(`/reports/jobs/${type.toUpperCase()}`, filters);
+    return response.data;
+};
+
+export const getReportJob = async (jobId) => {
+    const response = await api.get(`/reports/jobs/${jobId}`);
+    return response.data;
+};
+
+export const downloadReportJob = async (jobId) => {
+    const response = await api.get(`/reports/jobs/${jobId}/file`, {
+        responseType: 'blob',
+    });
+    return response.data;
+};
@@ -23,3 +23,11 @@ export const updateTemplate = async (id, template) => {
 export const deleteTemplate = async (id) => {
     await api.delete(`/templates/${id}`);
 };
+
+// Image drawn behind the fields in preview/overlay prints
+export const uploadTemplateBackground = async (id, file) => {
+    const formData = new FormData();
+    formData.append('file', file);
+    const response = await api.post(`/templates/${id}/background`, formData);
+    return response.data;
+};
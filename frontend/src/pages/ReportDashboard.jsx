@@ -1,5 +1,5 @@
 import React, { useState } from 'react';
-import { getReportData, exportReport } from '../api/reportApi';
+import { getReportData, exportReport, submitReportJob, getReportJob, downloadReportJob } from '../api/reportApi';
 import {
     FileText, Calendar, Filter, Download,
     Search, PieChart, AlertTriangle, CheckCircle, Clock, XCircle
@@ -17,6 +17,8 @@ const ReportDashboard = () => {
     const [data, setData] = useState([]);
     const [loading, setLoading] = useState(false);
     const [summary, setSummary] = useState({ count: 0, totalAmount: 0 });
+    const [runInBackground, setRunInBackground] = useState(false);
+    const [jobProgress, setJobProgress] = useState(null);
 
     const REPORT_TYPES = [
         { id: 'REGISTER', label: 'Cheque Register', icon: <FileText size={18} />, description: 'Complete list of all cheque transactions.' },
@@ -60,7 +62,14 @@ const ReportDashboard = () => {
                 reportType: activeReport,
                 companyId: filters.companyId ? parseInt(filters.companyId) : 1
             };
-            const blob = await exportReport(payload, type);
+            let blob;
+            if (runInBackground) {
+                const job = await submitReportJob(payload, type);
+                await waitForJob(job.id);
+                blob = await downloadReportJob(job.id);
+            } else {
+                blob = await exportReport(payload, type);
+            }
             const url = window.URL.createObjectURL(new Blob([blob]));
             const link = document.createElement('a');
             link.href = url;
@@ -70,7 +79,22 @@ const ReportDashboard = () => {
             link.parentNode.removeChild(link);
         } catch (error) {
             console.error("Export failed", error);
-            alert("Export failed");
+            alert(error.message || "Export failed");
+        } finally {
+            setJobProgress(null);
+        }
+    };
+
+    // Polls a report job until it finishes
+    const waitForJob = async (jobId) => {
+        while (true) {
+            const job = await getReportJob(jobId);
+            setJobProgress(job);
+            if (job.status === 'COMPLETED') return job;
+            if (job.status === 'FAILED' || job.status === 'EXPIRED') {
+                throw new Error(job.errorMessage || "Report job failed.");
+            }
+            await new Promise(resolve => setTimeout(resolve, 1000));
         }
     };
 
@@ -128,10 +152,25 @@ const ReportDashboard = () => {
                             </h2>
                             <p style={{ color: 'var(--color-text-muted)', margin: 0 }}>Configure filters and generate your report.</p>
                         </div>
-                        <div style={{ display: 'flex', gap: '0.5rem' }}>
-                            <button onClick={() => handleExport('pdf')} className="btn btn-outline" disabled={data.length === 0} title="Export PDF"><Download size={18} /> PDF</button>
-                            <button onClick={() => handleExport('excel')} className="btn btn-outline" disabled={data.length === 0} title="Export Excel"><Download size={18} /> Excel</button>
-                            <button onClick={() => handleExport('csv')} className="btn btn-outline" disabled={data.length === 0} title="Export CSV"><Download size={18} /> CSV</button>
+                        <div style={{ display: 'flex', gap: '0.5rem', alignItems: 'center' }}>
+                            {jobProgress && (
+                                <small style={{ color: 'var(--color-text-muted)' }}>
+                                    {jobProgress.status === 'QUEUED'
+                                        ? 'Queued...'
+                                        : `Writing ${jobProgress.writtenRows} of ${jobProgress.totalRows ?? '?'} rows (${jobProgress.progressPercent}%)...`}
+                                </small>
+                            )}
+                            <label style={{ display: 'flex', alignItems: 'center', gap: '0.25rem', cursor: 'pointer', fontSize: '0.8rem' }} title="Queue large exports and download them when ready">
+                                <input
+                                    type="checkbox"
+                                    checked={runInBackground}
+                                    onChange={(e) => setRunInBackground(e.target.checked)}
+                                />
+                                Run in background
+                            </label>
+                            <button onClick={() => handleExport('pdf')} className="btn btn-outline" disabled={data.length === 0 || jobProgress !== null} title="Export PDF"><Download size={18} /> PDF</button>
+                            <button onClick={() => handleExport('excel')} className="btn btn-outline" disabled={data.length === 0 || jobProgress !== null} title="Export Excel"><Download size={18} /> Excel</button>
+                            <button onClick={() => handleExport('csv')} className="btn btn-outline" disabled={data.length === 0 || jobProgress !== null} title="Export CSV"><Download size={18} /> CSV</button>
                         </div>
                     </div>
 
@@ -239,7 +278,7 @@ const ReportDashboard = () => {
                                                     </span>
                                                 </td>
                                                 <td style={{ padding: '1rem', fontSize: '0.85rem', color: 'var(--color-text-muted)' }}>
-                                                    {row.bank?.name || row.accountNumber}
+                                                    {row.bankName || row.accountNumber}
                                                 </td>
                                             </tr>
                                         ))
@@ -70,6 +70,9 @@ const ChequeBookList = () => {
                             <th style={{ padding: '0.75rem' }}>Start No</th>
                             <th style={{ padding: '0.75rem' }}>End No</th>
                             <th style={{ padding: '0.75rem' }}>Total Leaves</th>
+                            <th style={{ padding: '0.75rem' }}>Used</th>
+                            <th style={{ padding: '0.75rem' }}>Remaining</th>
+                            <th style={{ padding: '0.75rem' }}>Voided</th>
                             <th style={{ padding: '0.75rem' }}>Issued Date</th>
                             <th style={{ padding: '0.75rem' }}>Actions</th>
                         </tr>
@@ -81,6 +84,9 @@ const ChequeBookList = () => {
                                 <td style={{ padding: '0.75rem' }}>{book.startNumber}</td>
                                 <td style={{ padding: '0.75rem' }}>{book.endNumber}</td>
                                 <td style={{ padding: '0.75rem' }}>{book.totalLeaves}</td>
+                                <td style={{ padding: '0.75rem' }}>{book.usedLeaves}</td>
+                                <td style={{ padding: '0.75rem' }}>{book.remainingLeaves}</td>
+                                <td style={{ padding: '0.75rem' }}>{book.voidedLeaves}</td>
                                 <td style={{ padding: '0.75rem' }}>{book.issuedDate}</td>
                                 <td style={{ padding: '0.75rem' }}>
                                     <Link to={`/cheque-books/${book.id}/view`} className="btn btn-sm" style={{ marginRight: '0.5rem', color: 'var(--color-primary)' }}>View Cheques</Link>
@@ -89,7 +95,7 @@ const ChequeBookList = () => {
                         ))}
                         {chequeBooks.length === 0 && (
                             <tr>
-                                <td colSpan="6" style={{ padding: '1rem', textAlign: 'center' }}>No cheque books found.</td>
+                                <td colSpan="9" style={{ padding: '1rem', textAlign: 'center' }}>No cheque books found.</td>
                             </tr>
                         )}
                     </tbody>
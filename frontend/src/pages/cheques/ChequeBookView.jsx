@@ -1,6 +1,6 @@
 import React, { useEffect, useState } from 'react';
 import { useParams, Link } from 'react-router-dom';
-import { getChequeBookById, getChequesByBook, updateChequeStatus, createOutgoingCheque } from '../../api/chequeApi';
+import { getChequeBookById, getChequesByBook, updateChequeStatus, updateLeafStatus, createOutgoingCheque } from '../../api/chequeApi';
 import { getVendorsByCompany } from '../../api/vendorApi';
 import { createApprovalRequest } from '../../api/workflowApi';
 
@@ -8,6 +8,7 @@ const ChequeBookView = () => {
     const { id } = useParams();
     const [book, setBook] = useState(null);
     const [cheques, setCheques] = useState([]);
+    const [nextAfter, setNextAfter] = useState(null);
     const [vendors, setVendors] = useState([]);
     const [loading, setLoading] = useState(true);
 
@@ -40,8 +41,9 @@ const ChequeBookView = () => {
                 setVendors(vendorsData);
             }
 
-            const chequesData = await getChequesByBook(id);
-            setCheques(chequesData);
+            const page = await getChequesByBook(id);
+            setCheques(page.items);
+            setNextAfter(page.nextAfter);
         } catch (error) {
             console.error(error);
         } finally {
@@ -49,11 +51,25 @@ const ChequeBookView = () => {
         }
     };
 
-    const handleStatusChange = async (chequeId, newStatus) => {
+    const loadMore = async () => {
+        try {
+            const page = await getChequesByBook(id, { after: nextAfter });
+            setCheques([...cheques, ...page.items]);
+            setNextAfter(page.nextAfter);
+        } catch (error) {
+            console.error(error);
+        }
+    };
+
+    const handleStatusChange = async (cheque, newStatus) => {
         const remarks = prompt(`Enter remarks for marking as ${newStatus}:`);
         if (remarks !== null) { // User didn't cancel
             try {
-                await updateChequeStatus(chequeId, newStatus, remarks);
+                if (cheque.id) {
+                    await updateChequeStatus(cheque.id, newStatus, remarks);
+                } else {
+                    await updateLeafStatus(cheque.chequeBookId, cheque.chequeNumber, newStatus, remarks);
+                }
                 loadData(); // Reload to refresh
             } catch (error) {
                 console.error("Failed to update status", error);
@@ -88,6 +104,8 @@ const ChequeBookView = () => {
         try {
             const payload = {
                 id: issuingCheque.id,
+                chequeBookId: issuingCheque.chequeBookId,
+                chequeNumber: issuingCheque.chequeNumber,
                 payeeName: issueFormData.payeeName,
                 vendorId: issueFormData.vendorId ? parseInt(issueFormData.vendorId) : null,
                 amount: parseFloat(issueFormData.amount),
@@ -170,7 +188,7 @@ const ChequeBookView = () => {
                     </thead>
                     <tbody>
                         {cheques.map(cheque => (
-                            <tr key={cheque.id} style={{ borderBottom: '1px solid var(--color-border)' }}>
+                            <tr key={cheque.chequeNumber} style={{ borderBottom: '1px solid var(--color-border)' }}>
                                 <td style={{ padding: '1rem', fontFamily: 'monospace' }}>{cheque.chequeNumber}</td>
                                 <td style={{ padding: '1rem' }}>
                                     <span className={`status-badge status-${cheque.status.toLowerCase()}`}>
@@ -209,14 +227,14 @@ const ChequeBookView = () => {
                                                     Issue
                                                 </button>
                                                 <button
-                                                    onClick={() => handleStatusChange(cheque.id, 'VOID')}
+                                                    onClick={() => handleStatusChange(cheque, 'VOID')}
                                                     className="btn btn-sm"
                                                     style={{ color: 'var(--color-text-muted)', border: '1px solid var(--color-border)', padding: '0.4rem 0.8rem', fontSize: '0.875rem' }}
                                                 >
                                                     Void
                                                 </button>
                                                 <button
-                                                    onClick={() => handleStatusChange(cheque.id, 'MISSING')}
+                                                    onClick={() => handleStatusChange(cheque, 'MISSING')}
                                                     className="btn btn-sm"
                                                     style={{ color: 'var(--color-text-muted)', border: '1px solid var(--color-border)', padding: '0.4rem 0.8rem', fontSize: '0.875rem' }}
                                                 >
@@ -234,7 +252,7 @@ const ChequeBookView = () => {
                                                 </Link>
                                                 <select
                                                     onChange={(e) => {
-                                                        if (e.target.value) handleStatusChange(cheque.id, e.target.value);
+                                                        if (e.target.value) handleStatusChange(cheque, e.target.value);
                                                         e.target.value = ''; // reset select
                                                     }}
                                                     className="form-input"
@@ -254,6 +272,13 @@ const ChequeBookView = () => {
                         ))}
                     </tbody>
                 </table>
+                {nextAfter !== null && (
+                    <div style={{ padding: '1rem', textAlign: 'center' }}>
+                        <button onClick={loadMore} className="btn btn-sm" style={{ border: '1px solid var(--color-border)' }}>
+                            Load More
+                        </button>
+                    </div>
+                )}
             </div>
 
             {/* Issue Cheque Modal */}
@@ -2,15 +2,18 @@ import React, { useState, useEffect } from 'react';
 import { useNavigate, useParams, Link } from 'react-router-dom';
 import { createIncomingCheque, updateIncomingCheque } from '../../api/incomingChequeApi';
 import { getCustomersByCompany } from '../../api/customerApi'; // Assuming this exists
+import { getAccountsByCompany } from '../../api/bankAccountApi';
 
 const IncomingChequeForm = () => {
     const { id } = useParams(); // If editing (not implemented fully for fetch yet but structure ready)
     const navigate = useNavigate();
     const [customers, setCustomers] = useState([]);
+    const [accounts, setAccounts] = useState([]);
 
     // Form fields matching IncomingChequeDTO
     const [formData, setFormData] = useState({
         customerId: '',
+        depositAccountId: '',
         chequeNumber: '',
         chequeDate: '',
         receivedDate: new Date().toISOString().split('T')[0],
@@ -25,6 +28,7 @@ const IncomingChequeForm = () => {
 
     useEffect(() => {
         loadCustomers();
+        loadAccounts();
         // If ID exists, fetch existing data (skipping specific fetch logic here for brevity, assume create mode primarily)
     }, []);
 
@@ -37,6 +41,16 @@ const IncomingChequeForm = () => {
         }
     };
 
+    // Deposit accounts feed the cash-flow forecast
+    const loadAccounts = async () => {
+        try {
+            const data = await getAccountsByCompany(1); // Same company as the customers
+            setAccounts(data.filter(a => a.active));
+        } catch (error) {
+            console.error("Failed to load bank accounts", error);
+        }
+    };
+
     const handleChange = (e) => {
         const { name, value } = e.target;
         setFormData(prev => ({ ...prev, [name]: value }));
@@ -52,6 +66,7 @@ const IncomingChequeForm = () => {
             // Prepare DTO only fields
             const payload = {
                 customerId: formData.customerId,
+                depositAccountId: formData.depositAccountId || null,
                 chequeNumber: formData.chequeNumber,
                 chequeDate: formData.chequeDate,
                 receivedDate: formData.receivedDate,
@@ -198,6 +213,16 @@ const IncomingChequeForm = () => {
                                     <input type="text" name="branchName" className="form-input" value={formData.branchName} onChange={handleChange} placeholder="Optional" />
                                 </div>
                             </div>
+
+                            <div className="form-group">
+                                <label className="form-label">Deposit To</label>
+                                <select name="depositAccountId" className="form-input" value={formData.depositAccountId} onChange={handleChange}>
+                                    <option value="">Not decided yet</option>
+                                    {accounts.map(a => (
+                                        <option key={a.id} value={a.id}>{a.bankName} - {a.accountNumber}</option>
+                                    ))}
+                                </select>
+                            </div>
                         </div>
                     </div>
 
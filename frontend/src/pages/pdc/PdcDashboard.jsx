@@ -1,5 +1,5 @@
 import React, { useEffect, useState } from 'react';
-import { getPdcExposure, runPdcCheck, getOutgoingExposureDetails, getIncomingExposureDetails } from '../../api/pdcApi';
+import { getPdcExposure, runPdcCheck, getOutgoingExposureDetails, getIncomingExposureDetails, getCashFlowForecast } from '../../api/pdcApi';
 
 const PdcDashboard = () => {
     const [exposure, setExposure] = useState([]);
@@ -11,10 +11,27 @@ const PdcDashboard = () => {
     const [detailsData, setDetailsData] = useState([]);
     const [loadingDetails, setLoadingDetails] = useState(false);
 
+    // Cash-flow forecast
+    const [forecast, setForecast] = useState(null);
+    const [granularity, setGranularity] = useState('WEEK');
+    const [horizonDays, setHorizonDays] = useState(90);
+
     useEffect(() => {
         loadData();
     }, []);
 
+    useEffect(() => {
+        loadForecast();
+    }, [granularity, horizonDays]);
+
+    const loadForecast = async () => {
+        try {
+            setForecast(await getCashFlowForecast({ horizonDays, granularity }));
+        } catch (error) {
+            console.error("Failed to load cash-flow forecast", error);
+        }
+    };
+
     const loadData = async () => {
         try {
             const data = await getPdcExposure();
@@ -31,6 +48,7 @@ const PdcDashboard = () => {
         try {
             await runPdcCheck();
             await loadData();
+            await loadForecast();
             alert("PDC Check Completed");
         } catch (error) {
             console.error(error);
@@ -143,6 +161,75 @@ const PdcDashboard = () => {
                 </table>
             </div>
 
+            <div className="card" style={{ marginTop: '2rem' }}>
+                <div style={{ display: 'flex', justifyContent: 'space-between', alignItems: 'center' }}>
+                    <h3>Cash-Flow Forecast</h3>
+                    <div style={{ display: 'flex', gap: '0.5rem' }}>
+                        <select className="form-input" value={granularity} onChange={(e) => setGranularity(e.target.value)}>
+                            <option value="DAY">Daily</option>
+                            <option value="WEEK">Weekly</option>
+                            <option value="MONTH">Monthly</option>
+                        </select>
+                        <select className="form-input" value={horizonDays} onChange={(e) => setHorizonDays(Number(e.target.value))}>
+                            <option value={30}>30 days</option>
+                            <option value={90}>90 days</option>
+                            <option value={180}>180 days</option>
+                            <option value={365}>1 year</option>
+                        </select>
+                    </div>
+                </div>
+                {!forecast ? (
+                    <div style={{ marginTop: '1rem' }}>Loading forecast...</div>
+                ) : forecast.accounts.map(account => (
+                    <div key={account.accountId} style={{ marginTop: '1.5rem' }}>
+                        <div style={{ display: 'flex', justifyContent: 'space-between' }}>
+                            <strong>{account.bankName} - {account.accountNumber} ({account.companyName})</strong>
+                            <span className="text-muted">
+                                Balance {(account.openingBalance || 0).toLocaleString()} &rarr; {(account.closingBalance || 0).toLocaleString()}
+                                {account.negativeDays.length > 0 && (
+                                    <span style={{ color: 'var(--color-error)', fontWeight: 'bold', marginLeft: '0.5rem' }}>
+                                        Negative on {account.negativeDays.length} day(s) from {account.negativeDays[0]}
+                                    </span>
+                                )}
+                            </span>
+                        </div>
+                        <table style={{ width: '100%', borderCollapse: 'collapse', marginTop: '0.5rem' }}>
+                            <thead>
+                                <tr style={{ textAlign: 'left', borderBottom: '1px solid var(--color-border)' }}>
+                                    <th style={{ padding: '0.5rem' }}>Period</th>
+                                    <th style={{ padding: '0.5rem' }}>Inflows</th>
+                                    <th style={{ padding: '0.5rem' }}>Outflows</th>
+                                    <th style={{ padding: '0.5rem' }}>Net</th>
+                                    <th style={{ padding: '0.5rem' }}>Closing Balance</th>
+                                    <th style={{ padding: '0.5rem' }}>Lowest</th>
+                                </tr>
+                            </thead>
+                            <tbody>
+                                {account.buckets
+                                    // Daily view: only days that move the balance or are below zero
+                                    .filter(b => granularity !== 'DAY' || b.inflowCount + b.outflowCount > 0 || b.negative)
+                                    .map(b => (
+                                        <tr key={b.startDate} style={{ borderBottom: '1px solid var(--color-border)', backgroundColor: b.negative ? 'rgba(239, 68, 68, 0.08)' : undefined }}>
+                                            <td style={{ padding: '0.5rem' }}>{b.startDate === b.endDate ? b.startDate : `${b.startDate} - ${b.endDate}`}</td>
+                                            <td style={{ padding: '0.5rem', color: 'var(--color-success)' }}>{b.inflowAmount.toLocaleString()} ({b.inflowCount})</td>
+                                            <td style={{ padding: '0.5rem', color: 'var(--color-error)' }}>{b.outflowAmount.toLocaleString()} ({b.outflowCount})</td>
+                                            <td style={{ padding: '0.5rem' }}>{b.netFlow.toLocaleString()}</td>
+                                            <td style={{ padding: '0.5rem', fontWeight: 'bold' }}>{b.closingBalance.toLocaleString()}</td>
+                                            <td style={{ padding: '0.5rem', color: b.negative ? 'var(--color-error)' : undefined }}>{b.lowestBalance.toLocaleString()}</td>
+                                        </tr>
+                                    ))}
+                            </tbody>
+                        </table>
+                    </div>
+                ))}
+                {forecast && forecast.unassignedInflows.some(b => b.inflowCount > 0) && (
+                    <p className="text-muted" style={{ marginTop: '1rem' }}>
+                        Not in any account yet: {forecast.unassignedInflows.reduce((sum, b) => sum + b.inflowAmount, 0).toLocaleString()} expected
+                        from {forecast.unassignedInflows.reduce((sum, b) => sum + b.inflowCount, 0)} incoming cheque(s) without a deposit account.
+                    </p>
+                )}
+            </div>
+
             {/* Details Modal (Shared) */}
             {showDetailsModal && (
                 <div style={{
@@ -180,7 +267,7 @@ const PdcDashboard = () => {
                                                 <td style={{ padding: '0.75rem', fontFamily: 'monospace' }}>{cheque.chequeNumber}</td>
                                                 <td style={{ padding: '0.75rem' }}>
                                                     {detailsType === 'INCOMING'
-                                                        ? (cheque.customer ? cheque.customer.name : 'Unknown')
+                                                        ? (cheque.customerName || 'Unknown')
                                                         : (cheque.displayPayee || cheque.payeeName || 'Unknown')
                                                     }
                                                 </td>
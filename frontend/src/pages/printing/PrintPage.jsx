@@ -1,7 +1,7 @@
 import React, { useEffect, useState } from 'react';
 import { useSearchParams } from 'react-router-dom';
 import { getAllTemplates } from '../../api/templateApi';
-import { getChequePdf, getBatchChequePdf } from '../../api/printingApi';
+import { getChequePdf, submitPrintJob, getPrintJob, downloadPrintJob } from '../../api/printingApi';
 import { getOutgoingExposureDetails } from '../../api/pdcApi';
 import { Printer, Layers, FileText, CheckCircle, AlertCircle } from 'lucide-react';
 
@@ -24,6 +24,9 @@ const PrintPage = () => {
     const [previewUrl, setPreviewUrl] = useState(null);
     const [error, setError] = useState(null);
     const [successMsg, setSuccessMsg] = useState(null);
+    const [jobProgress, setJobProgress] = useState(null);
+    // Draw the template's background image (preview, or overlay on blank stock)
+    const [withBackground, setWithBackground] = useState(false);
 
     const [searchParams] = useSearchParams();
 
@@ -57,10 +60,24 @@ const PrintPage = () => {
         }
     };
 
+    // Polls a batch print job until it finishes
+    const waitForJob = async (jobId) => {
+        while (true) {
+            const job = await getPrintJob(jobId);
+            setJobProgress(job);
+            if (job.status === 'COMPLETED') return job;
+            if (job.status === 'FAILED' || job.status === 'EXPIRED') {
+                throw new Error(job.errorMessage || "Print job failed.");
+            }
+            await new Promise(resolve => setTimeout(resolve, 1000));
+        }
+    };
+
     const handleGenerate = async () => {
         setError(null);
         setSuccessMsg(null);
         setPreviewUrl(null);
+        setJobProgress(null);
         setLoading(true);
 
         try {
@@ -69,12 +86,14 @@ const PrintPage = () => {
             let blob;
             if (printMode === 'single') {
                 if (!chequeId) throw new Error("Please select a Cheque.");
-                blob = await getChequePdf(chequeId, selectedTemplate);
+                blob = await getChequePdf(chequeId, selectedTemplate, withBackground);
             } else {
                 if (!batchIds) throw new Error("Please enter Cheque IDs.");
                 const ids = batchIds.split(',').map(id => id.trim()).filter(id => id);
                 if (ids.length === 0) throw new Error("Invalid Cheque IDs.");
-                blob = await getBatchChequePdf(ids, selectedTemplate);
+                const job = await submitPrintJob(ids, selectedTemplate, withBackground);
+                await waitForJob(job.id);
+                blob = await downloadPrintJob(job.id);
             }
 
             const url = window.URL.createObjectURL(new Blob([blob], { type: 'application/pdf' }));
@@ -85,6 +104,7 @@ const PrintPage = () => {
             setError(err.message || "Failed to generate PDF. check inputs.");
         } finally {
             setLoading(false);
+            setJobProgress(null);
         }
     };
 
@@ -166,7 +186,7 @@ const PrintPage = () => {
                                     <option value="">-- Select Cheque --</option>
                                     {pendingCheques.map(cheque => (
                                         <option key={cheque.id} value={cheque.id}>
-                                            #{cheque.chequeNumber} - {cheque.payeeName || cheque.vendor?.name || 'Unknown'} ({cheque.amount?.toLocaleString()})
+                                            #{cheque.chequeNumber} - {cheque.displayPayee} ({cheque.amount?.toLocaleString()})
                                         </option>
                                     ))}
                                 </select>
@@ -191,6 +211,17 @@ const PrintPage = () => {
                             </div>
                         )}
 
+                        <div className="form-group">
+                            <label style={{ display: 'flex', alignItems: 'center', gap: '0.5rem', cursor: 'pointer' }}>
+                                <input
+                                    type="checkbox"
+                                    checked={withBackground}
+                                    onChange={(e) => setWithBackground(e.target.checked)}
+                                />
+                                Include template background
+                            </label>
+                        </div>
+
                         {error && (
                             <div style={{
                                 padding: '1rem',
@@ -234,7 +265,9 @@ const PrintPage = () => {
                             {loading ? (
                                 <span style={{ display: 'flex', alignItems: 'center', gap: '0.5rem' }}>
                                     <span className="spinner-border spinner-border-sm" role="status" aria-hidden="true"></span>
-                                    Generating PDF...
+                                    {jobProgress
+                                        ? `Rendering ${jobProgress.renderedCheques} of ${jobProgress.totalCheques} (${jobProgress.progressPercent}%)...`
+                                        : 'Generating PDF...'}
                                 </span>
                             ) : (
                                 <span style={{ display: 'flex', alignItems: 'center', gap: '0.5rem' }}>
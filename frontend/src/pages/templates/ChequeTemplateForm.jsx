@@ -1,6 +1,6 @@
 import React, { useState, useEffect, useRef } from 'react';
 import { useNavigate, useParams, Link } from 'react-router-dom';
-import { createTemplate, updateTemplate, getTemplateById } from '../../api/templateApi';
+import { createTemplate, updateTemplate, getTemplateById, uploadTemplateBackground } from '../../api/templateApi';
 import { Save, ArrowLeft, Plus, Trash, Move, Type, RotateCw } from 'lucide-react';
 
 const A4_WIDTH = 595;
@@ -26,6 +26,10 @@ const AVAILABLE_FIELDS = [
     { key: 'extra1', label: 'Extra Label' }
 ];
 
+// Sheet layout entries of canvasConfig (N-up grid, background placement), not draggable fields
+const LAYOUT_KEYS = ['grid', 'background'];
+const isFieldKey = (key) => !LAYOUT_KEYS.includes(key);
+
 const ChequeTemplateForm = () => {
     const { id } = useParams();
     const navigate = useNavigate();
@@ -34,6 +38,8 @@ const ChequeTemplateForm = () => {
     const [name, setName] = useState('');
     const [description, setDescription] = useState('');
     const [active, setActive] = useState(true);
+    const [backgroundPath, setBackgroundPath] = useState(null);
+    const [backgroundFile, setBackgroundFile] = useState(null);
 
     // Canvas State (the JSON object)
     const [canvasConfig, setCanvasConfig] = useState({
@@ -67,6 +73,7 @@ const ChequeTemplateForm = () => {
             setName(data.name);
             setDescription(data.description);
             setActive(data.active);
+            setBackgroundPath(data.backgroundPath);
 
             let config = data.canvasConfig;
             if (typeof config === 'string') {
@@ -92,13 +99,13 @@ const ChequeTemplateForm = () => {
                 name,
                 description,
                 active,
+                backgroundPath,
                 canvasConfig: JSON.stringify(canvasConfig)
             };
 
-            if (id) {
-                await updateTemplate(id, payload);
-            } else {
-                await createTemplate(payload);
+            const saved = id ? await updateTemplate(id, payload) : await createTemplate(payload);
+            if (backgroundFile) {
+                await uploadTemplateBackground(saved.id, backgroundFile);
             }
             navigate('/templates');
         } catch (error) {
@@ -208,6 +215,23 @@ const ChequeTemplateForm = () => {
                         <label>Description</label>
                         <textarea className="form-input" value={description} onChange={e => setDescription(e.target.value)} placeholder="Description" rows="2" />
                     </div>
+                    <div className="form-group">
+                        <label>Background Image</label>
+                        <input type="file" accept="image/png,image/jpeg" className="form-input" onChange={e => setBackgroundFile(e.target.files[0] || null)} />
+                        {backgroundPath && !backgroundFile && (
+                            <small style={{ color: 'var(--color-text-muted)' }}>Current: {backgroundPath.split('/').pop()}</small>
+                        )}
+                    </div>
+                    <div className="form-group">
+                        <label>Cheques per Sheet (rows &times; columns)</label>
+                        <div style={{ display: 'flex', gap: '0.5rem' }}>
+                            <input type="number" min="1" className="form-input" value={canvasConfig.grid?.rows || 1}
+                                onChange={e => updateFieldConfig('grid', { rows: parseInt(e.target.value) || 1 })} />
+                            <input type="number" min="1" className="form-input" value={canvasConfig.grid?.columns || 1}
+                                onChange={e => updateFieldConfig('grid', { columns: parseInt(e.target.value) || 1 })} />
+                        </div>
+                        <small style={{ color: 'var(--color-text-muted)' }}>Place fields for the first cheque; the rest repeat down and across the sheet.</small>
+                    </div>
 
                     <hr style={{ margin: '1rem 0', borderColor: 'var(--color-border)' }} />
 
@@ -284,7 +308,7 @@ const ChequeTemplateForm = () => {
                         <div style={{ marginTop: '1rem' }}>
                             <h5 style={{ fontSize: '0.85rem', textTransform: 'uppercase', color: 'var(--color-text-muted)', marginBottom: '0.5rem' }}>Active Elements</h5>
                             <ul style={{ listStyle: 'none', padding: 0, margin: 0 }}>
-                                {Object.keys(canvasConfig).map(key => (
+                                {Object.keys(canvasConfig).filter(isFieldKey).map(key => (
                                     <li
                                         key={key}
                                         onClick={() => setSelectedField(key)}
@@ -311,7 +335,7 @@ const ChequeTemplateForm = () => {
                                 ))}
                             </ul>
 
-                            {Object.keys(canvasConfig).length === 0 && (
+                            {Object.keys(canvasConfig).filter(isFieldKey).length === 0 && (
                                 <p style={{ fontSize: '0.9rem', color: 'var(--color-text-muted)', textAlign: 'center', padding: '1rem' }}>
                                     No fields added. Add a field above.
                                 </p>
@@ -353,7 +377,7 @@ const ChequeTemplateForm = () => {
                         <div style={{ position: 'absolute', bottom: 0, left: 0, padding: '0.2rem', fontSize: '0.7rem', color: '#64748b' }}>(0,0)</div>
 
                         {/* Fields */}
-                        {Object.entries(canvasConfig).map(([key, config]) => (
+                        {Object.entries(canvasConfig).filter(([key]) => isFieldKey(key)).map(([key, config]) => (
                             <div
                                 key={key}
                                 onMouseDown={(e) => handleMouseDown(e, key)}